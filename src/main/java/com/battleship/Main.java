@@ -1,6 +1,7 @@
 package com.battleship;
 
 import com.battleship.controllers.GameController;
+import com.battleship.models.BoardSpec;
 import com.battleship.models.GameDTO;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -30,6 +31,14 @@ public class Main extends Application {
 
     // Modificado para aceptar un GameDTO opcional
     public static void showGameWindow(String nickname, GameDTO savedGame) throws IOException {
+        showGameWindow(nickname, savedGame, BoardSpec.classic());
+    }
+
+    public static void showGameWindow(String nickname, GameDTO savedGame, BoardSpec spec) throws IOException {
+        showGameWindow(nickname, savedGame, spec, false);
+    }
+
+    public static void showGameWindow(String nickname, GameDTO savedGame, BoardSpec spec, boolean expertOpponent) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/com/battleship/game-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 900, 650);
 
@@ -39,7 +48,9 @@ public class Main extends Application {
             // Si hay partida guardada, la cargamos
             controller.loadSavedGame(savedGame);
         } else {
-            // Si es juego nuevo, solo ponemos el nombre
+            // Si es juego nuevo, ponemos las reglas y el nombre
+            controller.setGameSpec(spec);
+            controller.setExpertOpponent(expertOpponent);
             controller.setPlayerNickname(nickname);
         }
 
@@ -3,18 +3,26 @@ package com.battleship.controllers;
 import com.battleship.models.*;
 import com.battleship.views.BoardView;
 import com.battleship.views.CellView;
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class GameController {
+    // La máquina dispara en cuanto decide; cada jugada suya se muestra al menos
+    // este tiempo después de la anterior para que el jugador pueda seguirla
+    private static final long ENEMY_MOVE_MILLIS = 1500;
 
     @FXML private HBox boardsContainer;
     @FXML private Label statusLabel;
@@ -26,12 +34,17 @@ public class GameController {
     private BoardView playerBoardView;
     private BoardView enemyBoardView;
 
+    private BoardSpec spec = BoardSpec.classic();
+    // Reglas, turnos y máquina viven en el motor; aquí solo se pintan y se traducen clics
+    private GameEngine engine;
     private Board playerBoard;
     private Board enemyBoard;
+    // Última instantánea del tablero del jugador, publicada por el hilo que lo modifica
+    private BoardSnapshot playerSnapshot;
+    private boolean expertOpponent;
     private String playerNickname;
 
     private boolean isPlacingShips = true;
-    private boolean isMyTurn = false;
     private boolean isHorizontal = true;
     private boolean isGameRunning = false;
     private boolean isDebugMode = false; // Controla si el ojo está activado o no
@@ -41,68 +54,120 @@ public class GameController {
     private List<Ship.Type> shipsToPlace;
     private int currentShipIndex = 0;
 
+    // Modo salva: casillas elegidas para la andanada del jugador
+    private final List<Coordinate> pendingSalvo = new ArrayList<>();
+
+    // Jugadas de la máquina que aún no se han mostrado; mientras haya alguna el jugador espera
+    private final Deque<Runnable> enemyMoves = new ArrayDeque<>();
+    private final PauseTransition enemyPace = new PauseTransition();
+    private long lastMoveShown = System.nanoTime(); // cuándo se mostró la última jugada
+    private Boolean pendingGameOver; // fin de partida a la espera de mostrar las jugadas
+
     @FXML
     public void initialize() {
         // Inicialización por defecto (Juego Nuevo)
-        playerBoard = new Board();
-        enemyBoard = new Board();
-
-        playerBoardView = new BoardView("My Fleet");
-        enemyBoardView = new BoardView("Enemy Waters");
-        boardsContainer.getChildren().addAll(playerBoardView, enemyBoardView);
+        newEngine(new Board(spec), new Board(spec));
 
+        createBoardViews();
         initShipsToPlace();
         setupPlacementEvents();
     }
 
+    // Reglas de un juego nuevo (salva, sin contacto), antes de colocar barcos
+    public void setGameSpec(BoardSpec spec) {
+        this.spec = spec;
+        newEngine(new Board(spec), new Board(spec));
+        // La flota enemiga se sigue buscando mientras el jugador coloca la suya
+        PlacementPool.shared(spec).start();
+    }
+
+    // IA experta: búsqueda de Monte Carlo durante el tiempo de pensar.
+    // Las dos terminan con el solucionador exacto cuando quedan pocas casillas.
+    public void setExpertOpponent(boolean expert) {
+        this.expertOpponent = expert;
+        newEngine(playerBoard, enemyBoard);
+    }
+
+    // Motor nuevo sobre estos tableros, con la IA elegida. La IA normal usa
+    // como prior dónde suele colocar sus barcos el jugador. Todo el azar de la
+    // partida sale de una semilla nueva.
+    private void newEngine(Board player, Board enemy) {
+        GameSeed seed = GameSeed.random();
+        PlacementHeatmap prior = PlacementHeatmap.shared(spec);
+        ShotStrategy search = expertOpponent
+                ? new MonteCarloStrategy(seed.split())
+                : new DensityStrategy(prior);
+        ShotStrategy strategy = new EndgameStrategy(search);
+        // El libro supone flotas al azar: abre solo mientras no haya partidas del
+        // jugador registradas, después la caza la guía desde el principio el prior
+        if (expertOpponent || prior == null || prior.games() == 0) {
+            strategy = new OpeningBookStrategy(strategy, seed.split());
+        }
+        this.engine = new GameEngine(player, enemy, strategy, new MachineHandler(), MachineOpponent.THINK_MILLIS,
+                true, seed);
+        this.playerBoard = player;
+        this.enemyBoard = enemy;
+    }
+
     // --- CARGAR PARTIDA GUARDADA ---
     public void loadSavedGame(GameDTO data) {
-        this.playerBoard = data.getPlayerBoard();
-        this.enemyBoard = data.getEnemyBoard();
+        Board savedPlayer = data.getPlayerBoard();
         this.playerNickname = data.getNickname();
         this.elapsedSeconds = data.getElapsedSeconds(); // <--- RECUPERAMOS EL TIEMPO
 
-        // Estado del juego
+        // La partida guardada puede tener otras dimensiones
+        if (!savedPlayer.getSpec().equals(spec)) {
+            this.spec = savedPlayer.getSpec();
+            createBoardViews();
+        }
+        newEngine(savedPlayer, data.getEnemyBoard());
+
+        // Estado del juego: se sigue con el turno del jugador
+        engine.start();
         this.isPlacingShips = false;
         this.isGameRunning = true;
-        this.isMyTurn = true;
 
         btnStart.setDisable(true);
         updateStatus("Game Loaded! Welcome back, " + playerNickname);
 
         // Renderizar tableros
-        renderBoardFromModel(playerBoard, playerBoardView, true);
-        renderBoardFromModel(enemyBoard, enemyBoardView, false);
+        playerSnapshot = playerBoard.snapshot();
+        renderBoardFromModel(playerSnapshot, playerBoardView, true);
+        renderBoardFromModel(enemyBoard.snapshot(), enemyBoardView, false);
 
         setupBattleEvents();
         startTimerThread(); // El hilo iniciará desde el 'elapsedSeconds' cargado
     }
 
-    private void renderBoardFromModel(Board board, BoardView view, boolean showShips) {
-        // 1. Pintar Barcos (si corresponde)
-        Map<Coordinate, Ship> grid = board.getGrid();
-        if (showShips) {
-            for (Coordinate coord : grid.keySet()) {
-                view.getCell(coord.getRow(), coord.getCol()).markAsShip();
-            }
-        }
+    private void createBoardViews() {
+        playerBoardView = new BoardView("My Fleet", spec.getRows(), spec.getCols());
+        enemyBoardView = new BoardView("Enemy Waters", spec.getRows(), spec.getCols());
+        boardsContainer.getChildren().setAll(playerBoardView, enemyBoardView);
+    }
 
-        // 2. Pintar Disparos (Agua, Tocado, Hundido)
-        for (Coordinate shot : board.getShotsFired()) {
-            CellView cell = view.getCell(shot.getRow(), shot.getCol());
-            if (grid.containsKey(shot)) {
-                // Había un barco
-                Ship ship = grid.get(shot);
-                if (ship.isSunk()) {
+    private void renderBoardFromModel(BoardSnapshot board, BoardView view, boolean showShips) {
+        // 1. Barcos: la instantánea sabe qué segmentos han sido tocados
+        for (int id = 1; id <= board.getFleetSize(); id++) {
+            List<Coordinate> positions = board.getShipCells(id);
+            boolean sunk = board.isSunk(id);
+            for (int i = 0; i < positions.size(); i++) {
+                Coordinate c = positions.get(i);
+                CellView cell = view.getCell(c.getRow(), c.getCol());
+                if (showShips) {
+                    cell.markAsShip();
+                }
+                if (sunk) {
                     cell.markAsSunk();
-                } else {
+                } else if (board.isSegmentHit(id, i)) {
                     cell.markAsHit();
                 }
-            } else {
-                // Era agua
-                cell.markAsWater();
             }
         }
+
+        // 2. Disparos al agua
+        for (Coordinate miss : board.getMisses()) {
+            view.getCell(miss.getRow(), miss.getCol()).markAsWater();
+        }
     }
     // ---------------------------------
 
@@ -110,8 +175,11 @@ public class GameController {
     private void saveGameStatus() {
         // Necesitamos una variable final o efectiva para el lambda
         final int timeToSave = elapsedSeconds;
+        // Instantáneas O(1): el hilo de guardado nunca ve un tablero a medio cambiar
+        final BoardSnapshot playerState = playerSnapshot;
+        final BoardSnapshot enemyState = enemyBoard.snapshot();
         new Thread(() -> {
-            Serializator.saveGame(playerBoard, enemyBoard, playerNickname, timeToSave);
+            Serializator.saveGame(playerState, enemyState, playerNickname, timeToSave);
             System.out.println("Game Auto-Saved.");
         }).start();
     }
@@ -119,36 +187,97 @@ public class GameController {
 
     private class MachineHandler implements GameEventListener {
         @Override
-        public void onEnemyShotFired(Coordinate target, int result) {
-            Platform.runLater(() -> {
+        public void onEnemyShotFired(ShotOutcome outcome, BoardSnapshot board) {
+            Platform.runLater(() -> showEnemyMove(() -> {
+                playerSnapshot = board;
+                Coordinate target = outcome.getTarget();
                 CellView cell = playerBoardView.getCell(target.getRow(), target.getCol());
 
-                if (result == 0) { // AGUA
-                    cell.markAsWater();
-                    updateStatus("Enemy missed! It's YOUR turn.");
-                    isMyTurn = true;
-                    saveGameStatus(); // <--- GUARDAR AL TERMINAR TURNO MÁQUINA
+                switch (outcome.getResult()) {
+                    case MISS:
+                        cell.markAsWater();
+                        updateStatus("Enemy missed! It's YOUR turn.");
+                        saveGameStatus(); // <--- GUARDAR AL TERMINAR TURNO MÁQUINA
+                        break;
+
+                    case HIT:
+                        cell.markAsHit();
+                        updateStatus("Enemy HIT your ship! Enemy shoots again...");
+                        saveGameStatus(); // <--- GUARDAR TRAS IMPACTO
+                        break;
+
+                    case SUNK:
+                        cell.markAsHit();
+                        revealSunkShip(playerBoardView, outcome.getSunkCells());
+                        updateStatus("Enemy SUNK your ship! Enemy shoots again...");
+                        saveGameStatus(); // <--- GUARDAR TRAS HUNDIR
+                        break;
+
+                    default:
+                        break;
+                }
+            }));
+        }
 
-                } else if (result == 1) { // TOCADO
-                    cell.markAsHit();
-                    updateStatus("Enemy HIT your ship! Enemy shoots again...");
-                    saveGameStatus(); // <--- GUARDAR TRAS IMPACTO
+        @Override
+        public void onEnemySalvoFired(SalvoOutcome salvo, BoardSnapshot board) {
+            // Un solo pintado y un solo guardado por andanada
+            Platform.runLater(() -> showEnemyMove(() -> {
+                playerSnapshot = board;
+                renderSalvo(playerBoardView, salvo);
+                saveGameStatus();
+
+                if (salvo.isFleetDestroyed()) return; // sigue onGameOver
+                updateStatus("Enemy salvo: " + salvo.getHitCount() + " hits, " + salvo.getSunkCount()
+                        + " sunk. YOUR turn: select " + engine.playerSalvoSize() + " targets.");
+            }));
+        }
 
-                } else if (result == 2) { // HUNDIDO
-                    cell.markAsHit();
-                    Ship sunkShip = playerBoard.getGrid().get(target);
-                    revealSunkShip(playerBoardView, sunkShip);
-                    updateStatus("Enemy SUNK your ship! Enemy shoots again...");
-                    saveGameStatus(); // <--- GUARDAR TRAS HUNDIR
-
-                    if (playerBoard.allShipsSunk()) {
-                        handleGameOver(false);
-                    }
-                }
+        // Llega desde el hilo de la IA o, si gana el jugador, desde el de la interfaz.
+        // Se muestra después de las jugadas de la máquina que aún estén pendientes.
+        @Override
+        public void onGameOver(boolean playerWon) {
+            Platform.runLater(() -> {
+                if (!isGameRunning) return;
+                pendingGameOver = playerWon;
+                if (!isShowingEnemyMoves()) handleGameOver(playerWon);
             });
         }
     }
 
+    // Encola una jugada de la máquina para pintarla a su ritmo (hilo de la interfaz)
+    private void showEnemyMove(Runnable render) {
+        if (!isGameRunning) return; // llegó después de terminar o reiniciar
+        enemyMoves.add(render);
+        if (enemyPace.getStatus() != Animation.Status.RUNNING) {
+            showNextEnemyMove();
+        }
+    }
+
+    private void showNextEnemyMove() {
+        if (enemyMoves.isEmpty()) {
+            if (pendingGameOver != null && isGameRunning) {
+                boolean playerWon = pendingGameOver;
+                // showAndWait no se permite dentro de una animación
+                Platform.runLater(() -> handleGameOver(playerWon));
+            }
+            return;
+        }
+        long wait = lastMoveShown + TimeUnit.MILLISECONDS.toNanos(ENEMY_MOVE_MILLIS) - System.nanoTime();
+        enemyPace.setDuration(Duration.millis(Math.max(0, TimeUnit.NANOSECONDS.toMillis(wait))));
+        enemyPace.setOnFinished(event -> {
+            lastMoveShown = System.nanoTime();
+            Runnable render = enemyMoves.poll();
+            if (isGameRunning) render.run();
+            showNextEnemyMove();
+        });
+        enemyPace.play();
+    }
+
+    private boolean isShowingEnemyMoves() {
+        return !enemyMoves.isEmpty() || enemyPace.getStatus() == Animation.Status.RUNNING;
+    }
+
     private void startTimerThread() {
         isGameRunning = true;
         Thread timerThread = new Thread(() -> {
@@ -174,15 +303,11 @@ public class GameController {
         timerThread.start();
     }
 
-    private void startEnemyTurnThread() {
-        MachineOpponent opponentAI = new MachineOpponent(playerBoard, new MachineHandler());
-        Thread enemyThread = new Thread(opponentAI);
-        enemyThread.setDaemon(true);
-        enemyThread.start();
-    }
-
     private void handleGameOver(boolean playerWon) {
+        if (!isGameRunning) return;
         isGameRunning = false;
+        engine.stop();
+        recordPlayerPlacement();
         Alert alert = new Alert(playerWon ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
         alert.setTitle("GAME OVER");
         alert.setHeaderText(playerWon ? "VICTORY!" : "DEFEAT");
@@ -191,17 +316,21 @@ public class GameController {
         btnRestart.setVisible(true);
     }
 
+    // Aprende de la colocación del jugador para las próximas partidas
+    private void recordPlayerPlacement() {
+        PlacementHeatmap heatmap = PlacementHeatmap.shared(spec);
+        if (heatmap != null) {
+            heatmap.record(playerBoard);
+        }
+    }
+
     private void initShipsToPlace() {
-        shipsToPlace = new ArrayList<>();
-        shipsToPlace.add(Ship.Type.AIRCRAFT_CARRIER);
-        shipsToPlace.add(Ship.Type.SUBMARINE); shipsToPlace.add(Ship.Type.SUBMARINE);
-        shipsToPlace.add(Ship.Type.DESTROYER); shipsToPlace.add(Ship.Type.DESTROYER); shipsToPlace.add(Ship.Type.DESTROYER);
-        shipsToPlace.add(Ship.Type.FRIGATE); shipsToPlace.add(Ship.Type.FRIGATE); shipsToPlace.add(Ship.Type.FRIGATE); shipsToPlace.add(Ship.Type.FRIGATE);
+        shipsToPlace = new ArrayList<>(spec.getFleet());
     }
 
     private void setupPlacementEvents() {
-        for (int row = 0; row < 10; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getCols(); col++) {
                 CellView cell = playerBoardView.getCell(row, col);
                 cell.setOnMouseClicked(event -> handlePlacementClick(cell.getRow(), cell.getCol()));
             }
@@ -213,7 +342,7 @@ public class GameController {
 
         Ship.Type typeToPlace = shipsToPlace.get(currentShipIndex);
         Ship newShip = new Ship(typeToPlace);
-        Coordinate start = new Coordinate(row, col);
+        Coordinate start = Coordinate.of(row, col);
 
         boolean success = playerBoard.placeShip(newShip, start, isHorizontal);
 
@@ -226,7 +355,9 @@ public class GameController {
                 updateStatus("Placed! Next: " + getCurrentShipName());
             }
         } else {
-            statusLabel.setText("Invalid position! Try again.");
+            statusLabel.setText(spec.isNoTouch()
+                    ? "Invalid position! Ships may not touch. Try again."
+                    : "Invalid position! Try again.");
         }
     }
 
@@ -237,8 +368,8 @@ public class GameController {
         }
     }
 
-    private void revealSunkShip(BoardView view, Ship ship) {
-        for (Coordinate c : ship.getPositions()) {
+    private void revealSunkShip(BoardView view, List<Coordinate> cells) {
+        for (Coordinate c : cells) {
             CellView cell = view.getCell(c.getRow(), c.getCol());
             cell.markAsSunk();
         }
@@ -259,17 +390,24 @@ public class GameController {
     @FXML
     public void onStartGame() {
         btnStart.setDisable(true);
-        enemyBoard.placeShipsRandomly();
-        isMyTurn = true;
-        updateStatus("Battle Started! It's your turn.");
+        PlacementPool enemyPlacements = PlacementPool.shared(spec);
+        enemyPlacements.placeOn(enemyBoard); // si aún no hay ninguna, la coloca engine.start() con la semilla
+        enemyPlacements.stop();
+        engine.start();
+        playerSnapshot = playerBoard.snapshot();
+        if (spec.isSalvo()) {
+            updateStatus("Battle Started! Select " + engine.playerSalvoSize() + " targets for your salvo.");
+        } else {
+            updateStatus("Battle Started! It's your turn.");
+        }
         setupBattleEvents();
         startTimerThread();
         saveGameStatus(); // Guardado inicial
     }
 
     private void setupBattleEvents() {
-        for (int row = 0; row < 10; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getCols(); col++) {
                 CellView cell = enemyBoardView.getCell(row, col);
                 cell.setOnMouseClicked(event -> handleEnemyBoardClick(cell.getRow(), cell.getCol()));
             }
@@ -277,38 +415,97 @@ public class GameController {
     }
 
     private void handleEnemyBoardClick(int row, int col) {
-        if (!isMyTurn || !isGameRunning) return;
+        if (!engine.isPlayerTurn() || !isGameRunning || isShowingEnemyMoves()) return;
+        if (spec.isSalvo()) {
+            handleSalvoTargetClick(row, col);
+            return;
+        }
 
-        int result = enemyBoard.receiveShot(new Coordinate(row, col));
+        // Con agua el motor ya ha pasado el turno a la máquina
+        ShotOutcome outcome = engine.playerShot(Coordinate.of(row, col));
+        lastMoveShown = System.nanoTime();
         CellView cell = enemyBoardView.getCell(row, col);
 
-        if (result == -1) {
+        switch (outcome.getResult()) {
+            case INVALID:
+                statusLabel.setText("You already shot there!");
+                break;
+
+            case MISS:
+                cell.markAsWater();
+                updateStatus("Miss! Computer's turn.");
+                saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
+                break;
+
+            case HIT:
+                cell.markAsHit();
+                updateStatus("HIT! Shoot again!");
+                saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
+                break;
+
+            case SUNK:
+                cell.markAsHit();
+                revealSunkShip(enemyBoardView, outcome.getSunkCells());
+                updateStatus("SUNK! Shoot again!");
+                saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
+                break;
+        }
+    }
+
+    // Modo salva: cada clic marca/desmarca un objetivo; al completar la andanada se dispara
+    private void handleSalvoTargetClick(int row, int col) {
+        Coordinate target = Coordinate.of(row, col);
+        if (enemyBoard.wasShotAt(target)) {
             statusLabel.setText("You already shot there!");
             return;
         }
+        CellView cell = enemyBoardView.getCell(row, col);
+        if (pendingSalvo.remove(target)) {
+            cell.markAsTargeted(false);
+        } else {
+            pendingSalvo.add(target);
+            cell.markAsTargeted(true);
+        }
 
-        if (result == 0) { // AGUA
-            cell.markAsWater();
-            updateStatus("Miss! Computer's turn.");
-            saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
-
-            isMyTurn = false;
-            startEnemyTurnThread();
+        int salvoSize = engine.playerSalvoSize();
+        if (pendingSalvo.size() < salvoSize) {
+            updateStatus("Salvo: " + pendingSalvo.size() + "/" + salvoSize + " targets selected.");
+            return;
+        }
+        fireSalvo();
+    }
 
-        } else if (result == 1) { // TOCADO
-            cell.markAsHit();
-            updateStatus("HIT! Shoot again!");
-            saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
+    private void fireSalvo() {
+        SalvoOutcome salvo = engine.playerSalvo(new ArrayList<>(pendingSalvo));
+        lastMoveShown = System.nanoTime();
+        for (Coordinate c : pendingSalvo) {
+            enemyBoardView.getCell(c.getRow(), c.getCol()).markAsTargeted(false);
+        }
+        pendingSalvo.clear();
+        renderSalvo(enemyBoardView, salvo);
+        saveGameStatus(); // <--- UN GUARDADO POR ANDANADA
 
-        } else if (result == 2) { // HUNDIDO
-            cell.markAsHit();
-            Ship sunkShip = enemyBoard.getGrid().get(new Coordinate(row, col));
-            revealSunkShip(enemyBoardView, sunkShip);
-            updateStatus("SUNK! Shoot again!");
-            saveGameStatus(); // <--- GUARDAR JUGADA HUMANO
+        if (salvo.isFleetDestroyed()) return; // sigue onGameOver
+        updateStatus("Salvo: " + salvo.getHitCount() + " hits, " + salvo.getSunkCount() + " sunk. Computer's turn.");
+    }
 
-            if (enemyBoard.allShipsSunk()) {
-                handleGameOver(true);
+    private void renderSalvo(BoardView view, SalvoOutcome salvo) {
+        for (ShotOutcome outcome : salvo.getShots()) {
+            Coordinate target = outcome.getTarget();
+            CellView cell = view.getCell(target.getRow(), target.getCol());
+            switch (outcome.getResult()) {
+                case MISS:
+                    cell.markAsWater();
+                    break;
+                case HIT:
+                    cell.markAsHit();
+                    break;
+                case SUNK:
+                    cell.markAsHit();
+                    revealSunkShip(view, outcome.getSunkCells());
+                    break;
+                default:
+                    break;
             }
         }
     }
@@ -344,8 +541,9 @@ public class GameController {
     public void onRestartGame() {
         try {
             isGameRunning = false;
+            engine.stop();
             // Para reiniciar, pasamos null como savedGame
-            com.battleship.Main.showGameWindow(playerNickname, null);
+            com.battleship.Main.showGameWindow(playerNickname, null, spec, expertOpponent);
         } catch (java.io.IOException e) {
             e.printStackTrace();
         }
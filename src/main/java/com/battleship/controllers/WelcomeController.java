@@ -1,10 +1,13 @@
 package com.battleship.controllers;
 
 import com.battleship.Main;
+import com.battleship.models.BoardSpec;
 import com.battleship.models.GameDTO;
+import com.battleship.models.PlacementPool;
 import com.battleship.models.Serializator;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.TextField;
 
 import java.io.IOException;
@@ -14,6 +17,22 @@ public class WelcomeController {
     @FXML
     private TextField nicknameField;
 
+    @FXML
+    private CheckBox salvoCheck;
+
+    @FXML
+    private CheckBox noTouchCheck;
+
+    @FXML
+    private CheckBox expertCheck;
+
+    @FXML
+    public void initialize() {
+        // Mientras se elige, se buscan en segundo plano flotas enemigas difíciles
+        PlacementPool.shared(BoardSpec.classic()).start();
+        PlacementPool.shared(BoardSpec.classic().withNoTouch(true)).start();
+    }
+
     @FXML
     protected void onPlayButtonClick() throws IOException {
         String nickname = nicknameField.getText().trim();
@@ -22,7 +41,10 @@ public class WelcomeController {
             showAlert("Error", "Please enter a nickname to play!");
         } else {
             // Inicia juego nuevo (pasamos null como savedGame)
-            Main.showGameWindow(nickname, null);
+            BoardSpec spec = BoardSpec.classic()
+                    .withSalvo(salvoCheck.isSelected())
+                    .withNoTouch(noTouchCheck.isSelected());
+            Main.showGameWindow(nickname, null, spec, expertCheck.isSelected());
         }
     }
 
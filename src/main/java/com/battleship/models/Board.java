@@ -2,107 +2,503 @@ package com.battleship.models;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class Board implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 5L;
 
-    private Map<Coordinate, Ship> grid;
-    private Set<Coordinate> shotsFired;
-    private Stack<Coordinate> successfulHits;
+    private final BoardSpec spec;
+
+    // Bitboards paginados: un bit por celda (índice = fila * columnas + columna)
+    // (no son final: seek() los sustituye al restaurar un checkpoint)
+    private CellBits occupied;
+    private CellBits shots;
+    private CellBits misses;
+    // Id del barco en cada celda ocupada (id = posición en fleet + 1)
+    private CellMap shipIds;
+
+    // Tramos libres para colocar barcos (bloquean los barcos, y con la regla sin
+    // contacto también sus vecinas) y para apuntar
+    // (bloquean el agua y los barcos hundidos, es decir, información pública)
+    private FreeRunIndex placementIndex;
+    private FreeRunIndex targetIndex;
+    // Celdas sin disparar, para sorteos uniformes en O(1)
+    private RemainingCells unshot;
+
+    // Todas las colocaciones y disparos válidos, en orden (deshacer/rehacer/seek)
+    private final MoveJournal journal;
 
     private List<Ship> fleet;
-    private int sunkShipsCount;
+    // La lista de barcos está compartida con una instantánea: se copia antes de cambiarla
+    private transient boolean fleetShared;
+    private final int[] afloatByType;
+    private int hitCells;
 
     public Board() {
-        this.grid = new HashMap<>();
-        this.shotsFired = new HashSet<>();
-        this.successfulHits = new Stack<>();
+        this(BoardSpec.classic());
+    }
+
+    public Board(BoardSpec spec) {
+        this.spec = spec;
+        this.journal = new MoveJournal();
+        this.afloatByType = new int[Ship.Type.values().length];
+        clear();
+    }
+
+    // Estado vacío (sin barcos ni disparos); no toca el diario
+    private void clear() {
+        this.occupied = new CellBits(spec.getCellCount());
+        this.shots = new CellBits(spec.getCellCount());
+        this.misses = new CellBits(spec.getCellCount());
+        this.shipIds = new CellMap();
+        int maxLength = FleetPlacer.maxLength(spec.getFleet());
+        this.placementIndex = new FreeRunIndex(spec.getRows(), spec.getCols(), maxLength);
+        this.targetIndex = new FreeRunIndex(spec.getRows(), spec.getCols(), maxLength);
+        this.unshot = new RemainingCells(spec.getCellCount());
         this.fleet = new ArrayList<>();
-        this.sunkShipsCount = 0;
+        this.fleetShared = false;
+        Arrays.fill(afloatByType, 0);
+        this.hitCells = 0;
     }
 
     public boolean placeShip(Ship ship, Coordinate start, boolean isHorizontal) {
-        List<Coordinate> proposedCoords = new ArrayList<>();
         int row = start.getRow();
         int col = start.getCol();
+        int size = ship.getType().getSize();
+        int lastRow = isHorizontal ? row : row + size - 1;
+        int lastCol = isHorizontal ? col + size - 1 : col;
 
-        for (int i = 0; i < ship.getType().getSize(); i++) {
-            Coordinate c;
-            if (isHorizontal) {
-                c = new Coordinate(row, col + i);
-            } else {
-                c = new Coordinate(row + i, col);
+        if (!spec.isValid(row, col) || !spec.isValid(lastRow, lastCol)) {
+            return false;
+        }
+
+        // 1. Validación sin crear objetos: el índice de tramos responde con bits
+        int first = spec.index(row, col);
+        if (!placementIndex.fits(first, isHorizontal, size)) {
+            return false;
+        }
+
+        // 2. Colocación
+        applyPlacement(ship, first, isHorizontal);
+        journal.record(MoveJournal.placement(first, ship.getType(), !isHorizontal));
+        afterMove();
+        return true;
+    }
+
+    private void applyPlacement(Ship ship, int first, boolean isHorizontal) {
+        int size = ship.getType().getSize();
+        int step = isHorizontal ? 1 : spec.getCols();
+        writableFleet().add(ship);
+        afloatByType[ship.getType().ordinal()]++;
+        int id = fleet.size();
+        for (int i = 0, index = first; i < size; i++, index += step) {
+            occupied.set(index);
+            if (!spec.isNoTouch()) {
+                placementIndex.block(index);
             }
+            shipIds.put(index, id);
+            ship.addCoordinate(toCoordinate(index));
+        }
+        if (spec.isNoTouch()) {
+            placementIndex.claimHalo(first, isHorizontal, size);
+        }
+    }
+
+    private List<Ship> writableFleet() {
+        if (fleetShared) {
+            fleet = new ArrayList<>(fleet);
+            fleetShared = false;
+        }
+        return fleet;
+    }
 
-            if (!isValidCoordinate(c) || grid.containsKey(c)) {
-                return false;
+    // Coloca la flota de la especificación eligiendo solo entre posiciones legales.
+    // Todo el azar sale de 'random' (véase GameSeed): el mismo generador, la misma flota.
+    // Lanza IllegalStateException si la flota no cabe.
+    public void placeShipsRandomly(RandomGenerator random) {
+        // El motor trabaja sobre el propio índice de colocación del tablero
+        FleetPlacer placer = new FleetPlacer(placementIndex, spec.isNoTouch());
+        List<Ship.Type> ships = spec.getFleet();
+        int[] layout = placer.generate(ships, random);
+        placer.release(layout, ships);
+        placeFleet(layout);
+    }
+
+    // Coloca una flota ya calculada: una colocación de FleetPlacer por barco, en
+    // el orden de spec.getFleet(). Lanza IllegalArgumentException si no cabe.
+    public void placeFleet(int[] layout) {
+        List<Ship.Type> ships = spec.getFleet();
+        if (layout.length != ships.size()) {
+            throw new IllegalArgumentException("Layout has " + layout.length + " ships, fleet has " + ships.size());
+        }
+        for (int i = 0; i < layout.length; i++) {
+            Coordinate start = toCoordinate(FleetPlacer.startIndex(layout[i]));
+            if (!placeShip(new Ship(ships.get(i)), start, FleetPlacer.isHorizontal(layout[i]))) {
+                throw new IllegalArgumentException("Ship " + i + " of the layout does not fit");
             }
-            proposedCoords.add(c);
         }
+    }
 
-        for (Coordinate c : proposedCoords) {
-            grid.put(c, ship);
-            ship.addCoordinate(c);
+    public ShotOutcome receiveShot(Coordinate c) {
+        if (!isValidCoordinate(c)) {
+            return ShotOutcome.invalid(c);
         }
-        fleet.add(ship);
-        return true;
+
+        int index = spec.index(c);
+        if (shots.get(index)) {
+            return ShotOutcome.invalid(c); // Repetido
+        }
+        ShotOutcome outcome = applyShot(index, c);
+        journal.record(MoveJournal.shot(index, outcome.getResult()));
+        afterMove();
+        return outcome;
     }
 
-    // NUEVO: Método para que la máquina coloque barcos al azar
-    public void placeShipsRandomly() {
-        Random random = new Random();
-        // Lista estándar de barcos
-        List<Ship.Type> shipsToDistribute = new ArrayList<>();
-        shipsToDistribute.add(Ship.Type.AIRCRAFT_CARRIER);
-        shipsToDistribute.add(Ship.Type.SUBMARINE); shipsToDistribute.add(Ship.Type.SUBMARINE);
-        shipsToDistribute.add(Ship.Type.DESTROYER); shipsToDistribute.add(Ship.Type.DESTROYER); shipsToDistribute.add(Ship.Type.DESTROYER);
-        shipsToDistribute.add(Ship.Type.FRIGATE); shipsToDistribute.add(Ship.Type.FRIGATE); shipsToDistribute.add(Ship.Type.FRIGATE); shipsToDistribute.add(Ship.Type.FRIGATE);
-
-        for (Ship.Type type : shipsToDistribute) {
-            boolean placed = false;
-            while (!placed) {
-                int row = random.nextInt(10);
-                int col = random.nextInt(10);
-                boolean horizontal = random.nextBoolean();
-
-                Ship newShip = new Ship(type);
-                placed = placeShip(newShip, new Coordinate(row, col), horizontal);
+    // Andanada (modo salva): resuelve todos los disparos de una vez, en orden,
+    // sobre los bitboards, y revisa los checkpoints una sola vez al final.
+    // Los repetidos (también dentro de la misma andanada) quedan como INVALID.
+    public SalvoOutcome receiveShots(List<Coordinate> targets) {
+        List<ShotOutcome> outcomes = new ArrayList<>(targets.size());
+        boolean applied = false;
+        for (Coordinate c : targets) {
+            int index = isValidCoordinate(c) ? spec.index(c) : -1;
+            if (index < 0 || shots.get(index)) {
+                outcomes.add(ShotOutcome.invalid(c));
+                continue;
             }
+            ShotOutcome outcome = applyShot(index, c);
+            journal.record(MoveJournal.shot(index, outcome.getResult()));
+            outcomes.add(outcome);
+            applied = true;
+        }
+        if (applied) {
+            afterMove();
+        }
+        return new SalvoOutcome(outcomes, allShipsSunk());
+    }
+
+    private ShotOutcome applyShot(int index, Coordinate c) {
+        shots.set(index);
+        unshot.remove(index);
+        int id = shipIds.get(index);
+        if (id == 0) {
+            misses.set(index);
+            targetIndex.block(index);
+            return ShotOutcome.miss(c);
+        }
+
+        Ship ship = fleet.get(id - 1);
+        ship.hit(ship.segmentOf(c.getRow(), c.getCol()));
+        hitCells++;
+
+        if (!ship.isSunk()) {
+            return ShotOutcome.hit(c, id);
+        }
+        afloatByType[ship.getType().ordinal()]--;
+        for (Coordinate part : ship.getPositions()) {
+            targetIndex.block(spec.index(part));
+        }
+        return ShotOutcome.sunk(c, id, ship.getPositions());
+    }
+
+    // --- Diario: deshacer, rehacer y saltar a una jugada ---
+    // Igual que el resto de escrituras, solo desde el hilo que modifica el tablero.
+
+    // Deshace la última jugada aplicada; false si no hay ninguna
+    public boolean undo() {
+        if (journal.size() == 0) {
+            return false;
         }
+        int move = journal.size() - 1;
+        if (journal.isShot(move)) {
+            undoShot(journal.cellIndex(move));
+        } else {
+            undoPlacement(journal.cellIndex(move), !journal.isVertical(move));
+        }
+        journal.stepBack();
+        return true;
+    }
+
+    // Vuelve a aplicar la siguiente jugada deshecha; false si no hay ninguna
+    public boolean redo() {
+        if (journal.redoCount() == 0) {
+            return false;
+        }
+        int move = journal.size();
+        int index = journal.cellIndex(move);
+        if (journal.isShot(move)) {
+            applyShot(index, toCoordinate(index));
+        } else {
+            applyPlacement(new Ship(journal.shipType(move)), index, !journal.isVertical(move));
+        }
+        journal.stepForward();
+        afterMove();
+        return true;
     }
 
-    public int receiveShot(Coordinate c) {
-        if (!isValidCoordinate(c) || shotsFired.contains(c)) {
-            return -1; // Inválido o repetido
+    // Deja el tablero como estaba tras 'move' jugadas (0..getMoveCount() + redoCount()).
+    // Parte del checkpoint más cercano (búsqueda binaria) si está más cerca que la
+    // posición actual; se rejuegan como mucho las jugadas entre dos checkpoints.
+    public void seek(int move) {
+        int current = journal.size();
+        if (move < 0 || move > current + journal.redoCount()) {
+            throw new IndexOutOfBoundsException("Move " + move + " of " + (current + journal.redoCount()));
         }
+        int checkpoint = journal.checkpointAtOrBefore(move);
+        int base = checkpoint < 0 ? 0 : journal.checkpointMove(checkpoint);
+        if (move - base < Math.abs(move - current)) {
+            if (checkpoint < 0) {
+                clear();
+            } else {
+                restore(journal.checkpointState(checkpoint));
+            }
+            journal.moveTo(base);
+        }
+        while (journal.size() > move) {
+            undo();
+        }
+        while (journal.size() < move) {
+            redo();
+        }
+    }
 
-        shotsFired.add(c);
+    public int getMoveCount() { return journal.size(); }
 
-        if (grid.containsKey(c)) {
-            Ship ship = grid.get(c);
-            ship.hit();
-            successfulHits.push(c);
+    // Celda sin disparar elegida al azar de forma uniforme, en O(1) y sin crear
+    // objetos (índice fila * columnas + columna), o -1 si ya se disparó a todas
+    public int randomUnshotCell(RandomGenerator random) {
+        return unshot.draw(random);
+    }
+
+    public int unshotCount() {
+        return unshot.size();
+    }
+
+    // Celda sin disparar número i (0 <= i < unshotCount()); el orden es
+    // arbitrario y cambia con cada disparo
+    public int unshotCellAt(int i) {
+        if (i < 0 || i >= unshot.size()) {
+            throw new IndexOutOfBoundsException("Unshot cell " + i + " of " + unshot.size());
+        }
+        return unshot.cellAt(i);
+    }
+    public MoveJournal getJournal() { return journal; }
+
+    private void undoShot(int index) {
+        shots.clear(index);
+        unshot.restore(index);
+        int id = shipIds.get(index);
+        if (id == 0) {
+            misses.clear(index);
+            targetIndex.unblock(index);
+            return;
+        }
+        Ship ship = fleet.get(id - 1);
+        if (ship.isSunk()) {
+            afloatByType[ship.getType().ordinal()]++;
+            for (Coordinate part : ship.getPositions()) {
+                targetIndex.unblock(spec.index(part));
+            }
+        }
+        ship.repair(ship.segmentOf(spec.rowOf(index), spec.colOf(index)));
+        hitCells--;
+    }
 
-            if (ship.isSunk()) {
-                sunkShipsCount++;
-                return 2; // Hundido
+    // Las jugadas se deshacen en orden inverso: el barco a quitar es el último
+    private void undoPlacement(int first, boolean isHorizontal) {
+        List<Ship> ships = writableFleet();
+        Ship ship = ships.remove(ships.size() - 1);
+        afloatByType[ship.getType().ordinal()]--;
+        for (Coordinate part : ship.getPositions()) {
+            int index = spec.index(part);
+            occupied.clear(index);
+            if (!spec.isNoTouch()) {
+                placementIndex.unblock(index);
             }
-            return 1; // Tocado
+            shipIds.remove(index);
         }
+        if (spec.isNoTouch()) {
+            placementIndex.releaseHalo(first, isHorizontal, ship.getType().getSize());
+        }
+    }
 
-        return 0; // Agua
+    // Guarda el estado completo para seek() cada CHECKPOINT_INTERVAL jugadas, o
+    // más espaciado si copiarlo cuesta más que rejugar ese número de jugadas
+    // (tableros enormes): así la memoria de los checkpoints no crece más que el diario.
+    private void afterMove() {
+        int copySize = placementIndex.copySize() + targetIndex.copySize() + fleet.size();
+        if (journal.wantsCheckpoint(Math.max(MoveJournal.CHECKPOINT_INTERVAL, copySize / 8))) {
+            journal.addCheckpoint(new Checkpoint(this));
+        }
+    }
+
+    private void restore(Checkpoint checkpoint) {
+        BoardSnapshot state = checkpoint.state;
+        occupied = state.occupiedBits().copy();
+        shots = state.shotBits().copy();
+        misses = state.missBits().copy();
+        shipIds = state.shipIdMap().copy();
+        placementIndex = new FreeRunIndex(checkpoint.placementIndex);
+        targetIndex = new FreeRunIndex(checkpoint.targetIndex);
+        unshot = checkpoint.unshot.copy();
+        fleet = new ArrayList<>(state.fleetView());
+        fleetShared = false;
+        for (int i = 0; i < fleet.size(); i++) {
+            fleet.get(i).restoreHitMask(checkpoint.hitMasks[i]);
+        }
+        System.arraycopy(checkpoint.afloatByType, 0, afloatByType, 0, afloatByType.length);
+        hitCells = state.hitCellCount();
+    }
+
+    // Estado guardado por el diario: la instantánea (compartida, O(1)) más lo que
+    // no comparte memoria con el tablero (índices de tramos y daño de los barcos)
+    static final class Checkpoint {
+        private final BoardSnapshot state;
+        private final FreeRunIndex placementIndex;
+        private final FreeRunIndex targetIndex;
+        private final RemainingCells unshot;
+        private final int[] hitMasks;
+        private final int[] afloatByType;
+
+        private Checkpoint(Board board) {
+            this.state = board.snapshot();
+            this.placementIndex = new FreeRunIndex(board.placementIndex);
+            this.targetIndex = new FreeRunIndex(board.targetIndex);
+            this.unshot = board.unshot.copy();
+            this.hitMasks = new int[board.fleet.size()];
+            for (int i = 0; i < hitMasks.length; i++) {
+                hitMasks[i] = board.fleet.get(i).getHitMask();
+            }
+            this.afloatByType = board.afloatByType.clone();
+        }
     }
 
     private boolean isValidCoordinate(Coordinate c) {
-        return c.getRow() >= 0 && c.getRow() < 10 && c.getCol() >= 0 && c.getCol() < 10;
+        return spec.isValid(c);
+    }
+
+    public boolean wasShotAt(Coordinate c) {
+        return isValidCoordinate(c) && shots.get(spec.index(c));
+    }
+
+    // Instantánea inmutable en O(1): comparte la memoria con el tablero, que
+    // copia cada página solo cuando vuelve a escribir en ella. Debe pedirla el
+    // hilo que modifica el tablero; después se puede leer desde cualquier hilo.
+    public BoardSnapshot snapshot() {
+        fleetShared = true;
+        return new BoardSnapshot(spec, occupied.snapshot(), shots.snapshot(), misses.snapshot(),
+                shipIds.snapshot(), fleet, hitCells);
+    }
+
+    // Reconstruye un tablero vivo a partir de una instantánea (p. ej. al cargar partida)
+    public static Board fromSnapshot(BoardSnapshot snapshot) {
+        Board board = new Board(snapshot.getSpec());
+        for (int id = 1; id <= snapshot.getFleetSize(); id++) {
+            List<Coordinate> cells = snapshot.getShipCells(id);
+            boolean horizontal = cells.size() < 2 || cells.get(0).getRow() == cells.get(1).getRow();
+            board.placeShip(new Ship(snapshot.getShipType(id)), cells.get(0), horizontal);
+        }
+        for (Coordinate shot : snapshot.getShotsFired()) {
+            board.receiveShot(shot);
+        }
+        return board;
+    }
+
+    // Tamaño del barco más pequeño aún a flote (0 si no queda ninguno)
+    public int smallestShipAfloat() {
+        int smallest = 0;
+        for (Ship.Type type : Ship.Type.values()) {
+            if (afloatByType[type.ordinal()] > 0 && (smallest == 0 || type.getSize() < smallest)) {
+                smallest = type.getSize();
+            }
+        }
+        return smallest;
+    }
+
+    // Barcos aún a flote (en modo salva, disparos por turno de este jugador)
+    public int shipsAfloat() {
+        int afloat = 0;
+        for (int count : afloatByType) {
+            afloat += count;
+        }
+        return afloat;
     }
 
     public boolean allShipsSunk() {
-        return sunkShipsCount == fleet.size() && !fleet.isEmpty();
+        // Todas las celdas ocupadas han recibido disparo
+        return !fleet.isEmpty() && hitCells == occupied.size();
+    }
+
+    // Memoria aproximada del estado del tablero, para medir el escalado
+    public long footprintBytes() {
+        long bytes = occupied.footprintBytes() + shots.footprintBytes() + misses.footprintBytes() + shipIds.footprintBytes()
+                + placementIndex.footprintBytes() + targetIndex.footprintBytes() + unshot.footprintBytes();
+        for (Ship ship : fleet) {
+            bytes += 48 + 8L * ship.getPositions().size();
+        }
+        return bytes;
     }
 
-    // Getters
-    public Set<Coordinate> getShotsFired() { return shotsFired; }
-    public Map<Coordinate, Ship> getGrid() { return grid; }
-    public List<Ship> getFleet() { return fleet; }
-}
\ No newline at end of file
+    private Coordinate toCoordinate(int index) {
+        return Coordinate.of(spec.rowOf(index), spec.colOf(index));
+    }
+
+    // Getters (vistas de solo lectura sobre los bitboards)
+    public BoardSpec getSpec() { return spec; }
+    public FreeRunIndex getPlacementIndex() { return placementIndex; }
+    public FreeRunIndex getTargetIndex() { return targetIndex; }
+    public Set<Coordinate> getShotsFired() { return new CellSetView(spec, shots); }
+    public Set<Coordinate> getMisses() { return new CellSetView(spec, misses); }
+    public Ship getShip(int shipId) { return fleet.get(shipId - 1); }
+    public Map<Coordinate, Ship> getGrid() { return new GridView(); }
+    public List<Ship> getFleet() { return Collections.unmodifiableList(fleet); }
+
+    // Vista Map<Coordinate, Ship>: celda ocupada -> barco
+    private final class GridView extends AbstractMap<Coordinate, Ship> {
+        @Override
+        public Ship get(Object key) {
+            if (!(key instanceof Coordinate)) return null;
+            Coordinate c = (Coordinate) key;
+            if (!isValidCoordinate(c)) return null;
+            int id = shipIds.get(spec.index(c));
+            return id == 0 ? null : fleet.get(id - 1);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Coordinate> keySet() {
+            return new CellSetView(spec, occupied);
+        }
+
+        @Override
+        public Set<Entry<Coordinate, Ship>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return occupied.size();
+                }
+
+                @Override
+                public Iterator<Entry<Coordinate, Ship>> iterator() {
+                    Iterator<Coordinate> keys = keySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Coordinate, Ship> next() {
+                            Coordinate c = keys.next();
+                            return new SimpleImmutableEntry<>(c, get(c));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
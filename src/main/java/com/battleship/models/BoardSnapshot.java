@@ -0,0 +1,82 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Estado inmutable de un tablero en un instante (ver Board.snapshot()).
+// Comparte memoria con el tablero vivo, así que crearla cuesta O(1). El estado
+// de daño de los barcos se deduce de los disparos de la instantánea y no del
+// Ship vivo, que puede seguir cambiando en el hilo que juega.
+public final class BoardSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final BoardSpec spec;
+    private final CellBits occupied;
+    private final CellBits shots;
+    private final CellBits misses;
+    private final CellMap shipIds;
+    private final List<Ship> fleet;
+    private final int fleetSize;
+    private final int hitCells;
+
+    BoardSnapshot(BoardSpec spec, CellBits occupied, CellBits shots, CellBits misses,
+                  CellMap shipIds, List<Ship> fleet, int hitCells) {
+        this.spec = spec;
+        this.occupied = occupied;
+        this.shots = shots;
+        this.misses = misses;
+        this.shipIds = shipIds;
+        this.fleet = fleet;
+        this.fleetSize = fleet.size();
+        this.hitCells = hitCells;
+    }
+
+    public BoardSpec getSpec() { return spec; }
+    public int getFleetSize() { return fleetSize; }
+    public int getShotCount() { return shots.size(); }
+
+    public Ship.Type getShipType(int shipId) {
+        return fleet.get(shipId - 1).getType();
+    }
+
+    public List<Coordinate> getShipCells(int shipId) {
+        return Collections.unmodifiableList(fleet.get(shipId - 1).getPositions());
+    }
+
+    // Id del barco en la celda (0 si es agua)
+    public int getShipId(Coordinate c) {
+        return spec.isValid(c) ? shipIds.get(spec.index(c)) : 0;
+    }
+
+    public boolean wasShotAt(Coordinate c) {
+        return spec.isValid(c) && shots.get(spec.index(c));
+    }
+
+    public boolean isSegmentHit(int shipId, int segment) {
+        return wasShotAt(fleet.get(shipId - 1).getPositions().get(segment));
+    }
+
+    public boolean isSunk(int shipId) {
+        for (Coordinate c : fleet.get(shipId - 1).getPositions()) {
+            if (!shots.get(spec.index(c))) return false;
+        }
+        return true;
+    }
+
+    public boolean allShipsSunk() {
+        return fleetSize > 0 && hitCells == occupied.size();
+    }
+
+    public Set<Coordinate> getShotsFired() { return new CellSetView(spec, shots); }
+    public Set<Coordinate> getMisses() { return new CellSetView(spec, misses); }
+
+    // Acceso directo para restaurar un tablero vivo (Board.seek)
+    CellBits occupiedBits() { return occupied; }
+    CellBits shotBits() { return shots; }
+    CellBits missBits() { return misses; }
+    CellMap shipIdMap() { return shipIds; }
+    List<Ship> fleetView() { return fleet.subList(0, fleetSize); }
+    int hitCellCount() { return hitCells; }
+}
@@ -0,0 +1,120 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Dimensiones del tablero, flota que se juega en él y reglas de la partida (inmutable)
+public final class BoardSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int CLASSIC_SIZE = 10;
+    // Límite de celdas: los índices (y los de líneas transpuestas) deben caber en un int
+    public static final int MAX_CELLS = 1 << 30;
+
+    private final int rows;
+    private final int cols;
+    private final List<Ship.Type> fleet;
+    // Modo salva: cada turno es una andanada de un disparo por barco propio a flote
+    private final boolean salvo;
+    // Regla clásica: los barcos no pueden tocarse, ni siquiera en diagonal
+    private final boolean noTouch;
+
+    public BoardSpec(int rows, int cols, List<Ship.Type> fleet) {
+        this(rows, cols, fleet, false, false);
+    }
+
+    public BoardSpec(int rows, int cols, List<Ship.Type> fleet, boolean salvo, boolean noTouch) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.fleet = Collections.unmodifiableList(new ArrayList<>(fleet));
+        this.salvo = salvo;
+        this.noTouch = noTouch;
+    }
+
+    public BoardSpec withSalvo(boolean salvo) {
+        return salvo == this.salvo ? this : new BoardSpec(rows, cols, fleet, salvo, noTouch);
+    }
+
+    public BoardSpec withNoTouch(boolean noTouch) {
+        return noTouch == this.noTouch ? this : new BoardSpec(rows, cols, fleet, salvo, noTouch);
+    }
+
+    // Tablero 10x10 con la flota del enunciado
+    public static BoardSpec classic() {
+        return new BoardSpec(CLASSIC_SIZE, CLASSIC_SIZE, standardFleet());
+    }
+
+    // Tablero de cualquier tamaño con 'copies' copias de la flota estándar
+    public static BoardSpec withStandardFleet(int rows, int cols, int copies) {
+        List<Ship.Type> fleet = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            fleet.addAll(standardFleet());
+        }
+        return new BoardSpec(rows, cols, fleet);
+    }
+
+    public static List<Ship.Type> standardFleet() {
+        List<Ship.Type> ships = new ArrayList<>();
+        ships.add(Ship.Type.AIRCRAFT_CARRIER);
+        ships.add(Ship.Type.SUBMARINE); ships.add(Ship.Type.SUBMARINE);
+        ships.add(Ship.Type.DESTROYER); ships.add(Ship.Type.DESTROYER); ships.add(Ship.Type.DESTROYER);
+        ships.add(Ship.Type.FRIGATE); ships.add(Ship.Type.FRIGATE); ships.add(Ship.Type.FRIGATE); ships.add(Ship.Type.FRIGATE);
+        return ships;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public List<Ship.Type> getFleet() { return fleet; }
+    public int getCellCount() { return rows * cols; }
+    public boolean isSalvo() { return salvo; }
+    public boolean isNoTouch() { return noTouch; }
+
+    public boolean isValid(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    // Comparación sin signo: filas y columnas negativas quedan fuera
+    public boolean isValid(Coordinate c) {
+        long packed = c.getPacked();
+        return Integer.compareUnsigned((int) (packed >>> 32), rows) < 0
+                && Integer.compareUnsigned((int) packed, cols) < 0;
+    }
+
+    // Índice de celda en orden por filas
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    // Índice de una coordenada válida, sacado de su clave empaquetada
+    public int index(Coordinate c) {
+        long packed = c.getPacked();
+        return (int) (packed >>> 32) * cols + (int) packed;
+    }
+
+    public int rowOf(int index) { return index / cols; }
+    public int colOf(int index) { return index % cols; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardSpec)) return false;
+        BoardSpec that = (BoardSpec) o;
+        return rows == that.rows && cols == that.cols && fleet.equals(that.fleet)
+                && salvo == that.salvo && noTouch == that.noTouch;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * rows + cols) + fleet.hashCode()) + (salvo ? 1 : 0) + (noTouch ? 2 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + " (" + fleet.size() + " ships" + (salvo ? ", salvo" : "") + (noTouch ? ", no-touch" : "") + ")";
+    }
+}
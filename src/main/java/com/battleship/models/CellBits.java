@@ -0,0 +1,186 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+
+// Conjunto de celdas como bitboard paginado: las páginas (4096 celdas) se
+// crean al primer bit, así la memoria crece con las celdas usadas y no con el área.
+// snapshot() es O(1): la copia comparte las páginas y el original copia cada
+// página (y la tabla de páginas) solo la primera vez que la modifica después.
+final class CellBits implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_WORDS = 1 << (PAGE_SHIFT - 6);
+
+    private final int cells;
+    private final boolean readOnly;
+    private long[][] pages;
+    private int count;
+
+    // Copia en escritura: la tabla de páginas está compartida con una instantánea
+    private transient boolean shared;
+    // Páginas propias tras compartir (null = todas son propias)
+    private transient boolean[] owned;
+
+    CellBits(int cells) {
+        this.cells = cells;
+        this.readOnly = false;
+        this.pages = new long[((cells - 1) >>> PAGE_SHIFT) + 1][];
+    }
+
+    private CellBits(CellBits source, boolean readOnly) {
+        this.cells = source.cells;
+        this.readOnly = readOnly;
+        this.pages = source.pages;
+        this.count = source.count;
+        this.shared = !readOnly;
+    }
+
+    // Copia inmutable que comparte las páginas actuales
+    CellBits snapshot() {
+        if (readOnly) {
+            return this;
+        }
+        shared = true;
+        return new CellBits(this, true);
+    }
+
+    // Copia modificable que comparte las páginas: cada lado copia al escribir
+    CellBits copy() {
+        if (!readOnly) {
+            shared = true;
+        }
+        return new CellBits(this, false);
+    }
+
+    boolean get(int index) {
+        long[] page = pages[index >>> PAGE_SHIFT];
+        return page != null && (page[(index >>> 6) & (PAGE_WORDS - 1)] & (1L << index)) != 0;
+    }
+
+    // Devuelve true si el bit no estaba activo
+    boolean set(int index) {
+        if (get(index)) {
+            return false;
+        }
+        long[] page = writablePage(index >>> PAGE_SHIFT);
+        page[(index >>> 6) & (PAGE_WORDS - 1)] |= 1L << index;
+        count++;
+        return true;
+    }
+
+    // Devuelve true si el bit estaba activo
+    boolean clear(int index) {
+        if (!get(index)) {
+            return false;
+        }
+        long[] page = writablePage(index >>> PAGE_SHIFT);
+        page[(index >>> 6) & (PAGE_WORDS - 1)] &= ~(1L << index);
+        count--;
+        return true;
+    }
+
+    private long[] writablePage(int p) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Snapshot bits are immutable");
+        }
+        if (shared) {
+            pages = pages.clone();
+            owned = new boolean[pages.length];
+            shared = false;
+        }
+        long[] page = pages[p];
+        if (page == null) {
+            page = pages[p] = new long[pageLength(p)];
+        } else if (owned != null && !owned[p]) {
+            page = pages[p] = page.clone();
+        } else {
+            return page;
+        }
+        if (owned != null) {
+            owned[p] = true;
+        }
+        return page;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int capacity() {
+        return cells;
+    }
+
+    // Siguiente bit activo desde 'from' (inclusive), o -1
+    int nextSetBit(int from) {
+        if (from < 0) from = 0;
+        if (from >= cells) return -1;
+        int p = from >>> PAGE_SHIFT;
+        int w = (from >>> 6) & (PAGE_WORDS - 1);
+        long mask = -1L << from;
+        for (; p < pages.length; p++, w = 0, mask = -1L) {
+            long[] page = pages[p];
+            if (page == null) continue;
+            for (; w < page.length; w++, mask = -1L) {
+                long word = page[w] & mask;
+                if (word != 0) {
+                    int index = (p << PAGE_SHIFT) + (w << 6) + Long.numberOfTrailingZeros(word);
+                    return index < cells ? index : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Siguiente bit activo en [from, to), o -1
+    int nextSetBit(int from, int to) {
+        while (from < to) {
+            int p = from >>> PAGE_SHIFT;
+            long[] page = pages[p];
+            if (page == null) {
+                from = (p + 1) << PAGE_SHIFT;
+                continue;
+            }
+            long word = page[(from >>> 6) & (PAGE_WORDS - 1)] & (-1L << from);
+            if (word != 0) {
+                int index = (from & ~63) + Long.numberOfTrailingZeros(word);
+                return index < to ? index : -1;
+            }
+            from = (from | 63) + 1;
+        }
+        return -1;
+    }
+
+    // Bit activo anterior en [to, from] buscando hacia atrás desde 'from', o -1
+    int previousSetBit(int from, int to) {
+        while (from >= to) {
+            int p = from >>> PAGE_SHIFT;
+            long[] page = pages[p];
+            if (page == null) {
+                from = (p << PAGE_SHIFT) - 1;
+                continue;
+            }
+            long word = page[(from >>> 6) & (PAGE_WORDS - 1)] & (-1L >>> (63 - (from & 63)));
+            if (word != 0) {
+                int index = (from & ~63) + 63 - Long.numberOfLeadingZeros(word);
+                return index >= to ? index : -1;
+            }
+            from = (from & ~63) - 1;
+        }
+        return -1;
+    }
+
+    // Bytes ocupados aproximados (cabeceras de array incluidas)
+    long footprintBytes() {
+        long bytes = 16 + 16 + 8L * pages.length;
+        for (long[] page : pages) {
+            if (page != null) bytes += 16 + 8L * page.length;
+        }
+        return bytes;
+    }
+
+    private int pageLength(int p) {
+        int remaining = cells - (p << PAGE_SHIFT);
+        return Math.min(PAGE_WORDS, ((remaining - 1) >>> 6) + 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Mapa int -> int de direccionamiento abierto (sondeo lineal) sin boxing.
+// Claves >= 0; los valores ausentes se leen como 0.
+// snapshot() es O(1); el original copia sus tablas en la siguiente escritura.
+final class CellMap implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private boolean readOnly;
+    private transient boolean shared;
+
+    CellMap() {
+        this(16);
+    }
+
+    CellMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    // Copia inmutable que comparte las tablas actuales
+    CellMap snapshot() {
+        if (readOnly) {
+            return this;
+        }
+        shared = true;
+        return new CellMap(keys, values, size);
+    }
+
+    // Copia modificable que comparte las tablas: cada lado copia al escribir
+    CellMap copy() {
+        if (!readOnly) {
+            shared = true;
+        }
+        CellMap copy = new CellMap(keys, values, size);
+        copy.readOnly = false;
+        copy.shared = true;
+        return copy;
+    }
+
+    private CellMap(int[] keys, int[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+        this.readOnly = true;
+    }
+
+    private void beforeWrite() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Snapshot map is immutable");
+        }
+        if (shared) {
+            keys = keys.clone();
+            values = values.clone();
+            shared = false;
+        }
+    }
+
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == FREE) return 0;
+        }
+    }
+
+    boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return true;
+            if (k == FREE) return false;
+        }
+    }
+
+    void put(int key, int value) {
+        beforeWrite();
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    // Borrado con desplazamiento hacia atrás (sin lápidas)
+    int remove(int key) {
+        beforeWrite();
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == FREE) return 0;
+            slot = (slot + 1) & mask;
+        }
+        int old = values[slot];
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        size--;
+        return old;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long footprintBytes() {
+        return 16 + 2 * (16 + 4L * keys.length);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
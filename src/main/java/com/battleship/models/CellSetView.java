@@ -0,0 +1,49 @@
+package com.battleship.models;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Vista Set<Coordinate> de solo lectura sobre un bitboard, para el código que
+// aún trabaja con coordenadas
+final class CellSetView extends AbstractSet<Coordinate> {
+    private final BoardSpec spec;
+    private final CellBits bits;
+
+    CellSetView(BoardSpec spec, CellBits bits) {
+        this.spec = spec;
+        this.bits = bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Coordinate)) return false;
+        Coordinate c = (Coordinate) o;
+        return spec.isValid(c) && bits.get(spec.index(c));
+    }
+
+    @Override
+    public int size() {
+        return bits.size();
+    }
+
+    @Override
+    public Iterator<Coordinate> iterator() {
+        return new Iterator<>() {
+            private int next = bits.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Coordinate next() {
+                if (next < 0) throw new NoSuchElementException();
+                Coordinate c = Coordinate.of(spec.rowOf(next), spec.colOf(next));
+                next = bits.nextSetBit(next + 1);
+                return c;
+            }
+        };
+    }
+}
@@ -1,36 +1,74 @@
 package com.battleship.models;
 
 import java.io.Serializable;
-import java.util.Objects;
 
-public class Coordinate implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private int row;
-    private int col;
+public final class Coordinate implements Serializable {
+    private static final long serialVersionUID = 2L;
 
-    public Coordinate(int row, int col) {
+    // Tabla de instancias canónicas (flyweight) para las celdas habituales
+    static final int CACHE_DIM = 16;
+    static final int CACHE_SIZE = CACHE_DIM * CACHE_DIM;
+    private static final Coordinate[] CACHE = new Coordinate[CACHE_SIZE];
+
+    static {
+        for (int row = 0; row < CACHE_DIM; row++) {
+            for (int col = 0; col < CACHE_DIM; col++) {
+                CACHE[row * CACHE_DIM + col] = new Coordinate(row, col);
+            }
+        }
+    }
+
+    private final int row;
+    private final int col;
+    // Clave independiente del tablero: fila en los 32 bits altos, columna en los
+    // bajos. No choca para ningún tamaño que admita BoardSpec.
+    private final long packed;
+    private final int hash;
+
+    private Coordinate(int row, int col) {
         this.row = row;
         this.col = col;
+        this.packed = ((long) row << 32) | (col & 0xFFFFFFFFL);
+        this.hash = 31 * row + col;
+    }
+
+    // Devuelve la instancia canónica; solo crea objetos fuera de la tabla
+    public static Coordinate of(int row, int col) {
+        if (row >= 0 && row < CACHE_DIM && col >= 0 && col < CACHE_DIM) {
+            return CACHE[row * CACHE_DIM + col];
+        }
+        return new Coordinate(row, col);
+    }
+
+    // Posición en la tabla de instancias canónicas, o -1 si está fuera
+    int cacheSlot() {
+        return row >= 0 && row < CACHE_DIM && col >= 0 && col < CACHE_DIM ? row * CACHE_DIM + col : -1;
     }
 
     public int getRow() { return row; }
     public int getCol() { return col; }
+    public long getPacked() { return packed; }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Coordinate)) return false;
         Coordinate that = (Coordinate) o;
-        return row == that.row && col == that.col;
+        return packed == that.packed;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return hash;
     }
 
     @Override
     public String toString() {
         return "[" + row + "," + col + "]";
     }
-}
\ No newline at end of file
+
+    // Al deserializar recuperamos la instancia canónica
+    private Object readResolve() {
+        return of(row, col);
+    }
+}
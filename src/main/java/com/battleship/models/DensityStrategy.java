@@ -0,0 +1,377 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Estrategia de densidad de probabilidad para la máquina.
+// Mantiene un mapa de calor: para cada celda, cuántas colocaciones de los barcos
+// que quedan a flote la cubren sin pasar por agua ni por barcos hundidos.
+// Solo usa información pública (resultados de disparos), que lee del diario del
+// tablero atacado, y se actualiza de forma incremental: un disparo al agua solo
+// recalcula los dos tramos (fila y columna) que lo contienen. Se recalcula entero
+// únicamente cuando desaparece del todo un tamaño de barco.
+//  - Caza: dispara a la celda desconocida de mayor calor (árbol de máximos).
+//  - Remate: con barcos tocados y no hundidos, cuenta solo las colocaciones que
+//    pasan por esos impactos.
+// Con un PlacementHeatmap como prior, la caza pondera el calor de cada celda por
+// lo que los humanos suelen usarla para los barcos que quedan, con más peso
+// cuantas más partidas haya registradas.
+public final class DensityStrategy implements ShotStrategy {
+
+    // Peso neutro del prior (calor * PRIOR_SCALE / PRIOR_SCALE)
+    private static final int PRIOR_SCALE = 16;
+    // Partidas registradas para que el prior pese la mitad
+    private static final int PRIOR_GAMES = 10;
+
+    private final PlacementHeatmap prior;
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+
+    private int rows;
+    private int cols;
+    private int area;
+    // Celdas bloqueadas (agua y hundidos) por filas y traspuestas por columnas
+    private CellBits blockedByRow;
+    private CellBits blockedByCol;
+    private CellBits shots;
+    private CellBits openHits; // tocadas de barcos aún a flote
+    private int[] afloatByLength;
+    private int[] lengths; // tamaños distintos aún a flote
+
+    private int[] heat;
+    // Peso del prior por celda (PRIOR_SCALE = neutro), o null sin prior
+    private int[] bias;
+    // Árbol de máximos sobre las celdas: hoja = calor (por el peso del prior), o -1
+    // si ya se disparó (o se eligió)
+    private int[] tree;
+    private int leaves;
+
+    // Latencia por decisión (incluye la sincronización con el diario)
+    private long lastDecisionNanos;
+    private long maxDecisionNanos;
+    private long totalDecisionNanos;
+    private int decisions;
+
+    public DensityStrategy() {
+        this(null);
+    }
+
+    public DensityStrategy(PlacementHeatmap prior) {
+        this.prior = prior;
+    }
+
+    // Olvida el tablero; la próxima decisión reconstruye todo desde el diario
+    @Override
+    public void reset() {
+        board = null;
+        heat = null;
+        tree = null;
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        long start = System.nanoTime();
+        sync(target);
+        int cell = openHits.size() > 0 ? chooseAroundHits() : -1;
+        if (cell < 0) {
+            cell = argmax();
+        }
+        if (cell < 0) {
+            throw new IllegalStateException("No cells left to shoot");
+        }
+        setLeaf(cell, -1);
+
+        long elapsed = System.nanoTime() - start;
+        lastDecisionNanos = elapsed;
+        maxDecisionNanos = Math.max(maxDecisionNanos, elapsed);
+        totalDecisionNanos += elapsed;
+        decisions++;
+        return Coordinate.of(cell / cols, cell % cols);
+    }
+
+    public long getLastDecisionNanos() { return lastDecisionNanos; }
+    public long getMaxDecisionNanos() { return maxDecisionNanos; }
+    public int getDecisionCount() { return decisions; }
+
+    public long getAverageDecisionNanos() {
+        return decisions == 0 ? 0 : totalDecisionNanos / decisions;
+    }
+
+    // Calor actual de una celda (colocaciones que la cubren), para depurar o pintar
+    public int heatAt(Coordinate c) {
+        return heat == null ? 0 : heat[c.getRow() * cols + c.getCol()];
+    }
+
+    // --- Sincronización con el diario del tablero ---
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || heat == null || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            rebuildFrom(target);
+        }
+        for (int move = synced, end = journal.size(); move < end; move++) {
+            if (journal.isShot(move)) {
+                apply(journal.cellIndex(move), journal.shotResult(move));
+            }
+        }
+        synced = journal.size();
+    }
+
+    private void rebuildFrom(Board target) {
+        BoardSpec spec = target.getSpec();
+        board = target;
+        synced = 0;
+        rewinds = target.getJournal().getRewindCount();
+        rows = spec.getRows();
+        cols = spec.getCols();
+        area = spec.getCellCount();
+        blockedByRow = new CellBits(area);
+        blockedByCol = new CellBits(area);
+        shots = new CellBits(area);
+        openHits = new CellBits(area);
+        afloatByLength = new int[FleetPlacer.maxLength(spec.getFleet()) + 1];
+        for (Ship.Type type : spec.getFleet()) {
+            afloatByLength[type.getSize()]++;
+        }
+        heat = new int[area];
+        leaves = Integer.highestOneBit(Math.max(1, area - 1)) << 1;
+        tree = new int[2 * leaves];
+        rebuildHeat();
+    }
+
+    private void apply(int cell, ShotOutcome.Result result) {
+        shots.set(cell);
+        setLeaf(cell, -1);
+        switch (result) {
+            case MISS:
+                block(cell);
+                break;
+            case HIT:
+                openHits.set(cell);
+                break;
+            case SUNK:
+                Ship ship = board.getGrid().get(Coordinate.of(cell / cols, cell % cols));
+                for (Coordinate part : ship.getPositions()) {
+                    int index = board.getSpec().index(part);
+                    openHits.clear(index);
+                    block(index);
+                }
+                if (--afloatByLength[ship.getType().getSize()] == 0) {
+                    rebuildHeat();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // --- Mapa de calor ---
+
+    // La celda deja de poder contener barcos: se rehacen los tramos de su fila y columna
+    private void block(int cell) {
+        if (blockedByRow.get(cell)) {
+            return;
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        int rowStart = row * cols;
+        int from = spanStart(blockedByRow, cell, rowStart) - rowStart;
+        int to = spanEnd(blockedByRow, cell, rowStart + cols) - rowStart;
+        addRun(row, from, to, true, -1);
+        blockedByRow.set(cell);
+        addRun(row, from, col, true, 1);
+        addRun(row, col + 1, to, true, 1);
+
+        int colStart = col * rows;
+        int t = colStart + row;
+        from = spanStart(blockedByCol, t, colStart) - colStart;
+        to = spanEnd(blockedByCol, t, colStart + rows) - colStart;
+        addRun(col, from, to, false, -1);
+        blockedByCol.set(t);
+        addRun(col, from, row, false, 1);
+        addRun(col, row + 1, to, false, 1);
+    }
+
+    private void rebuildHeat() {
+        lengths = activeLengths();
+        rebuildBias();
+        Arrays.fill(heat, 0);
+        // Con las hojas a -1, addRun no toca el árbol: se construye al final de una vez
+        Arrays.fill(tree, -1);
+        for (int r = 0; r < rows; r++) {
+            int rowStart = r * cols;
+            for (int from = 0; from < cols; ) {
+                int blocked = blockedByRow.nextSetBit(rowStart + from, rowStart + cols);
+                int to = blocked < 0 ? cols : blocked - rowStart;
+                addRun(r, from, to, true, 1);
+                from = to + 1;
+            }
+        }
+        for (int c = 0; c < cols; c++) {
+            int colStart = c * rows;
+            for (int from = 0; from < rows; ) {
+                int blocked = blockedByCol.nextSetBit(colStart + from, colStart + rows);
+                int to = blocked < 0 ? rows : blocked - colStart;
+                addRun(c, from, to, false, 1);
+                from = to + 1;
+            }
+        }
+        for (int cell = 0; cell < area; cell++) {
+            tree[leaves + cell] = shots.get(cell) ? -1 : score(cell);
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    // Suma (sign = 1) o resta (-1) lo que aporta el tramo libre [from, to) de una
+    // fila (horizontal) o de una columna: para la posición i de un tramo de
+    // longitud L, un barco de k cabe en min(i, L - k) - max(0, i - k + 1) + 1 sitios
+    private void addRun(int line, int from, int to, boolean horizontal, int sign) {
+        int length = to - from;
+        for (int i = 0; i < length; i++) {
+            int cover = 0;
+            for (int k : lengths) {
+                if (k > length || (!horizontal && k == 1)) continue; // un barco de 1 se cuenta una vez
+                cover += Math.min(i, length - k) - Math.max(0, i - k + 1) + 1;
+            }
+            if (cover == 0) continue;
+            int cell = horizontal ? line * cols + from + i : (from + i) * cols + line;
+            heat[cell] += sign * cover;
+            if (tree[leaves + cell] >= 0) {
+                setLeaf(cell, score(cell));
+            }
+        }
+    }
+
+    // Valor de la hoja: calor, ponderado por el prior si lo hay
+    private int score(int cell) {
+        return bias == null ? heat[cell] : heat[cell] * bias[cell];
+    }
+
+    // Peso = 1 + c * (uso de la celda / uso medio - 1), con c = partidas / (partidas + PRIOR_GAMES)
+    // y acotado a [1/4, 4]; solo cuentan los tipos de barco aún a flote
+    private void rebuildBias() {
+        bias = null;
+        if (prior == null || !prior.matches(board.getSpec()) || prior.games() == 0) {
+            return;
+        }
+        List<Ship.Type> afloat = new ArrayList<>();
+        for (Ship.Type type : Ship.Type.values()) {
+            if (type.getSize() < afloatByLength.length && afloatByLength[type.getSize()] > 0) afloat.add(type);
+        }
+        long[] used = new long[area];
+        long total = 0;
+        for (int cell = 0; cell < area; cell++) {
+            for (Ship.Type type : afloat) {
+                used[cell] += prior.count(type, cell);
+            }
+            total += used[cell];
+        }
+        if (total == 0) {
+            return;
+        }
+        int games = prior.games();
+        double confidence = (double) games / (games + PRIOR_GAMES);
+        double mean = (double) total / area;
+        bias = new int[area];
+        for (int cell = 0; cell < area; cell++) {
+            double weight = 1 + confidence * (used[cell] / mean - 1);
+            bias[cell] = (int) Math.round(PRIOR_SCALE * Math.max(0.25, Math.min(4, weight)));
+        }
+    }
+
+    private int[] activeLengths() {
+        int count = 0;
+        for (int k = 1; k < afloatByLength.length; k++) {
+            if (afloatByLength[k] > 0) count++;
+        }
+        int[] active = new int[count];
+        for (int k = 1, i = 0; k < afloatByLength.length; k++) {
+            if (afloatByLength[k] > 0) active[i++] = k;
+        }
+        return active;
+    }
+
+    // --- Elección ---
+
+    private int argmax() {
+        if (tree[1] < 0) {
+            return -1;
+        }
+        int node = 1;
+        while (node < leaves) {
+            node = tree[2 * node] == tree[node] ? 2 * node : 2 * node + 1;
+        }
+        return node - leaves;
+    }
+
+    // Remate: puntúa las celdas libres de cada colocación posible que pasa por
+    // un impacto abierto (una colocación que pasa por varios impactos suma varias veces)
+    private int chooseAroundHits() {
+        CellMap score = new CellMap();
+        int best = -1;
+        int bestScore = 0;
+        for (int hit = openHits.nextSetBit(0); hit >= 0; hit = openHits.nextSetBit(hit + 1)) {
+            int row = hit / cols;
+            int col = hit % cols;
+            for (int k : lengths) {
+                for (int s = Math.max(0, col - k + 1), last = Math.min(col, cols - k); s <= last; s++) {
+                    int first = row * cols + s;
+                    if (blockedByRow.nextSetBit(first, first + k) >= 0) continue;
+                    for (int i = 0; i < k; i++) {
+                        int cell = first + i;
+                        if (tree[leaves + cell] < 0) continue;
+                        int value = score.get(cell) + 1;
+                        score.put(cell, value);
+                        if (value > bestScore || (value == bestScore && heat[cell] > heat[best])) {
+                            best = cell;
+                            bestScore = value;
+                        }
+                    }
+                }
+                if (k == 1) continue;
+                for (int s = Math.max(0, row - k + 1), last = Math.min(row, rows - k); s <= last; s++) {
+                    int t = col * rows + s;
+                    if (blockedByCol.nextSetBit(t, t + k) >= 0) continue;
+                    for (int i = 0; i < k; i++) {
+                        int cell = (s + i) * cols + col;
+                        if (tree[leaves + cell] < 0) continue;
+                        int value = score.get(cell) + 1;
+                        score.put(cell, value);
+                        if (value > bestScore || (value == bestScore && heat[cell] > heat[best])) {
+                            best = cell;
+                            bestScore = value;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void setLeaf(int cell, int value) {
+        int node = leaves + cell;
+        tree[node] = value;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            int max = Math.max(tree[2 * node], tree[2 * node + 1]);
+            if (tree[node] == max) break;
+            tree[node] = max;
+        }
+    }
+
+    // --- Tramos sobre los bitsets ---
+
+    private static int spanStart(CellBits bits, int pos, int lineStart) {
+        int before = bits.previousSetBit(pos - 1, lineStart);
+        return before < 0 ? lineStart : before + 1;
+    }
+
+    private static int spanEnd(CellBits bits, int pos, int lineEnd) {
+        int after = bits.nextSetBit(pos + 1, lineEnd);
+        return after < 0 ? lineEnd : after;
+    }
+}
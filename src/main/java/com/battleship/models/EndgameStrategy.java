@@ -0,0 +1,582 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Solucionador exacto de finales para la máquina, envolviendo otra estrategia.
+// Cuando quedan pocas casillas sin disparar (umbral configurable) enumera todas
+// las flotas compatibles con lo observado y elige el disparo que minimiza el
+// número esperado de disparos hasta hundirlo todo, con todas las flotas
+// compatibles igual de probables. Recorre el árbol completo de resultados
+// (agua, tocado, hundido) con poda por cota inferior y guarda las posiciones
+// resueltas en una tabla de transposición acotada, con claves Zobrist de las
+// casillas disparadas, tocadas y de los barcos hundidos.
+// Por encima del umbral, o si el final resulta demasiado grande, decide la
+// estrategia envuelta.
+public final class EndgameStrategy implements ShotStrategy {
+
+    public static final int DEFAULT_THRESHOLD = 20;
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 17;
+    // Límites para no alargar el turno: flotas enumeradas y nodos explorados
+    private static final int MAX_LAYOUTS = 20_000;
+    private static final long MAX_NODES = 30_000;
+    private static final double EPSILON = 1e-9;
+    // Cada cuántos nodos se mira el reloj
+    private static final int CLOCK_MASK = 255;
+
+    // Clases de clave Zobrist por casilla
+    private static final int SHOT = 0;
+    private static final int HIT = 1;
+    private static final int SUNK = 2;
+    private static final long ZOBRIST_SEED = 0x2545F4914F6CDD1DL;
+
+    private final ShotStrategy delegate;
+    private final int threshold;
+    private final TranspositionTable table;
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+
+    private BoardSpec spec;
+    private int rows;
+    private int cols;
+    private int area;
+    private CellBits shots;
+    private CellBits taken; // disparadas o ya elegidas
+    private CellBits openHits; // impactos en barcos aún a flote
+    private int[] sunkPlacements; // (inicio << 1) | vertical, como FleetPlacer
+    private int[] sunkLengths;
+    private int sunkCount;
+    private int[] afloatByType;
+    private long key; // Zobrist de todo lo observado
+
+    // Final en curso: bit i de cada máscara = casilla cells[i]
+    private int[] cells;
+    private int shipCount;
+    private long[] ships;  // ships[flota * shipCount + barco]
+    private long[] unions; // casillas ocupadas por cada flota
+    private int layoutCount;
+    private long nodes;
+    private long nodeLimit;
+    private boolean timed;
+    private long deadline;
+    private boolean aborted;
+
+    // Estadísticas de la última decisión
+    private boolean lastSolved;
+    private boolean lastComplete;
+    private int lastLayouts;
+    private long lastNodes;
+    private double lastExpected;
+
+    public EndgameStrategy(ShotStrategy delegate) {
+        this(delegate, DEFAULT_THRESHOLD, DEFAULT_TABLE_ENTRIES);
+    }
+
+    // threshold: casillas sin disparar a partir de las cuales se intenta resolver
+    public EndgameStrategy(ShotStrategy delegate, int threshold, int tableEntries) {
+        if (threshold < 0 || threshold > 63) {
+            throw new IllegalArgumentException("Endgame threshold must be between 0 and 63: " + threshold);
+        }
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.table = new TranspositionTable(tableEntries);
+    }
+
+    @Override
+    public void reset() {
+        board = null;
+        table.clear();
+        delegate.reset();
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        return chooseTargets(target, 1).get(0);
+    }
+
+    // Sin plazo, la búsqueda se corta por número de nodos
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count) {
+        return decide(target, count, false, 0);
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target, long deadline) {
+        return chooseTargets(target, 1, deadline).get(0);
+    }
+
+    // Con plazo, busca hasta agotarlo; lo que sobre lo aprovecha la estrategia envuelta
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count, long deadline) {
+        return decide(target, count, true, deadline);
+    }
+
+    private List<Coordinate> decide(Board target, int count, boolean timed, long deadline) {
+        sync(target);
+        List<Coordinate> volley = null;
+        lastSolved = false;
+        if (area - shots.size() <= threshold && prepare()) {
+            // En una andanada no hay respuesta entre disparos: basta con las más probables
+            volley = count == 1 ? solve(timed, deadline) : mostLikely(count);
+            lastSolved = volley != null;
+        }
+        if (volley == null) {
+            volley = timed ? delegate.chooseTargets(target, count, deadline) : delegate.chooseTargets(target, count);
+        }
+        for (Coordinate c : volley) {
+            taken.set(spec.index(c));
+        }
+        return volley;
+    }
+
+    public ShotStrategy getDelegate() { return delegate; }
+    public boolean wasLastSolved() { return lastSolved; }
+    // false si el plazo cortó la búsqueda y se jugó la mejor jugada encontrada hasta entonces
+    public boolean wasLastComplete() { return lastComplete; }
+    public int getLastLayoutCount() { return lastLayouts; }
+    public long getLastNodeCount() { return lastNodes; }
+    // Disparos esperados hasta el final según la última resolución exacta
+    public double getLastExpectedShots() { return lastExpected; }
+    public long getTableHits() { return table.getHits(); }
+    public long getTableEvictions() { return table.getEvictions(); }
+
+    // --- Enumeración de flotas compatibles ---
+
+    // Prepara el final; false si no merece la pena (o no cabe en los límites)
+    private boolean prepare() {
+        int[] relevant = new int[64];
+        int m = 0;
+        for (int cell = 0; cell < area; cell++) {
+            if (openHits.get(cell) || (!shots.get(cell) && !touchesSunk(cell))) {
+                if (m == relevant.length) return false;
+                relevant[m++] = cell;
+            }
+        }
+        cells = Arrays.copyOf(relevant, m);
+
+        List<Integer> lengths = new ArrayList<>();
+        for (Ship.Type type : Ship.Type.values()) {
+            for (int i = 0; i < afloatByType[type.ordinal()]; i++) {
+                lengths.add(type.getSize());
+            }
+        }
+        lengths.sort((a, b) -> b - a); // los largos primero: son los que más restringen
+        shipCount = lengths.size();
+        if (shipCount == 0) return false;
+
+        long[][] masks = new long[shipCount][];
+        long[][] halos = new long[shipCount][];
+        for (int s = 0; s < shipCount; s++) {
+            if (s > 0 && lengths.get(s).equals(lengths.get(s - 1))) {
+                masks[s] = masks[s - 1];
+                halos[s] = halos[s - 1];
+            } else {
+                buildPlacements(lengths.get(s), masks, halos, s);
+            }
+        }
+
+        ships = new long[16 * shipCount];
+        unions = new long[16];
+        layoutCount = 0;
+        long[] current = new long[shipCount];
+        boolean complete = enumerate(0, 0, 0L, 0L, current, masks, halos, lengths, openMask());
+        lastLayouts = layoutCount;
+        return complete && layoutCount > 0;
+    }
+
+    // Colocaciones de longitud k sobre casillas relevantes, con su halo (regla sin contacto)
+    private void buildPlacements(int k, long[][] masks, long[][] halos, int s) {
+        long[] found = new long[2 * cells.length];
+        long[] halo = new long[2 * cells.length];
+        int count = 0;
+        for (int i = 0; i < cells.length; i++) {
+            int row = cells[i] / cols;
+            int col = cells[i] % cols;
+            for (int vertical = 0; vertical < (k == 1 ? 1 : 2); vertical++) {
+                long mask = 0;
+                boolean fits = true;
+                for (int j = 0; j < k && fits; j++) {
+                    int bit = vertical == 1 ? bitOf(row + j, col) : bitOf(row, col + j);
+                    fits = bit >= 0;
+                    if (fits) mask |= 1L << bit;
+                }
+                if (!fits) continue;
+                found[count] = mask;
+                halo[count++] = spec.isNoTouch() ? haloOf(mask) : 0;
+            }
+        }
+        masks[s] = Arrays.copyOf(found, count);
+        halos[s] = Arrays.copyOf(halo, count);
+    }
+
+    // Barcos iguales en orden creciente de colocación: cada flota aparece una sola vez
+    private boolean enumerate(int s, int from, long occupied, long forbidden, long[] current,
+                              long[][] masks, long[][] halos, List<Integer> lengths, long open) {
+        if (s == shipCount) {
+            if ((occupied & open) != open) return true; // deja impactos sin cubrir
+            for (long ship : current) {
+                if ((ship & ~open) == 0) return true; // estaría hundido
+            }
+            if (layoutCount == MAX_LAYOUTS) return false;
+            if (layoutCount == unions.length) {
+                unions = Arrays.copyOf(unions, layoutCount * 2);
+                ships = Arrays.copyOf(ships, layoutCount * 2 * shipCount);
+            }
+            System.arraycopy(current, 0, ships, layoutCount * shipCount, shipCount);
+            unions[layoutCount++] = occupied;
+            return true;
+        }
+        long[] options = masks[s];
+        for (int p = from; p < options.length; p++) {
+            long mask = options[p];
+            if ((mask & (occupied | forbidden)) != 0) continue;
+            current[s] = mask;
+            int next = s + 1 < shipCount && lengths.get(s + 1).equals(lengths.get(s)) ? p + 1 : 0;
+            if (!enumerate(s + 1, next, occupied | mask, forbidden | halos[s][p], current,
+                    masks, halos, lengths, open)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Búsqueda del disparo óptimo ---
+
+    // Búsqueda en cualquier momento: las jugadas de la raíz se evalúan de la más
+    // probable a la menos, y si vence el plazo se juega la mejor ya evaluada entera
+    private List<Coordinate> solve(boolean timed, long deadline) {
+        table.newSearch();
+        this.timed = timed;
+        this.deadline = deadline;
+        nodeLimit = timed ? Long.MAX_VALUE : MAX_NODES;
+        nodes = 0;
+        aborted = false;
+        int[] all = new int[layoutCount];
+        for (int i = 0; i < layoutCount; i++) {
+            all[i] = i;
+        }
+        long open = openMask();
+        int[] best = {-1};
+        double value = expected(all, layoutCount, open, open, key, best);
+        lastNodes = nodes;
+        if (best[0] < 0 || (aborted && !timed)) {
+            return null;
+        }
+        lastComplete = !aborted;
+        lastExpected = value;
+        return List.of(toCoordinate(cells[best[0]]));
+    }
+
+    // Disparos esperados para hundir lo que queda entre las flotas ids[0..n),
+    // dadas las casillas ya disparadas y tocadas. En la raíz (best != null)
+    // devuelve además el mejor disparo.
+    private double expected(int[] ids, int n, long shot, long hit, long stateKey, int[] best) {
+        if (n == 1) {
+            long left = unions[ids[0]] & ~hit;
+            if (best != null) best[0] = Long.numberOfTrailingZeros(left);
+            return Long.bitCount(left);
+        }
+        if (best == null) {
+            double cached = table.probe(stateKey);
+            if (!Double.isNaN(cached)) return cached;
+        }
+        if (++nodes > nodeLimit || (timed && (nodes & CLOCK_MASK) == 1 && System.nanoTime() - deadline >= 0)) {
+            aborted = true;
+            return 0;
+        }
+        double lower = lowerBound(ids, n, hit);
+        int[] candidates = candidates(ids, n, shot);
+
+        double bestValue = Double.POSITIVE_INFINITY;
+        int bestBit = -1;
+        for (int bit : candidates) {
+            long mask = 1L << bit;
+            // Reparte las flotas por resultado: 0 agua, 1 tocado, 2+ hundido (según el barco)
+            int[] codes = new int[n];
+            long[] sunk = new long[4];
+            int groups = 2;
+            for (int i = 0; i < n; i++) {
+                int id = ids[i];
+                if ((unions[id] & mask) == 0) continue;
+                long ship = shipAt(id, mask);
+                if ((ship & ~(hit | mask)) != 0) {
+                    codes[i] = 1;
+                    continue;
+                }
+                int g = 2;
+                while (g < groups && sunk[g - 2] != ship) g++;
+                if (g == groups) {
+                    if (g - 2 == sunk.length) sunk = Arrays.copyOf(sunk, sunk.length * 2);
+                    sunk[g - 2] = ship;
+                    groups++;
+                }
+                codes[i] = g;
+            }
+            int[] sizes = new int[groups];
+            for (int i = 0; i < n; i++) {
+                sizes[codes[i]]++;
+            }
+
+            double total = 1;
+            int cell = cells[bit];
+            for (int g = 0; g < groups && total < bestValue - EPSILON; g++) {
+                if (sizes[g] == 0) continue;
+                int[] group = new int[sizes[g]];
+                for (int i = 0, j = 0; i < n; i++) {
+                    if (codes[i] == g) group[j++] = ids[i];
+                }
+                long childKey = stateKey ^ zobrist(cell, SHOT);
+                long childHit = hit;
+                if (g >= 1) {
+                    childKey ^= zobrist(cell, HIT);
+                    childHit |= mask;
+                }
+                if (g >= 2) {
+                    childKey ^= shipKey(sunk[g - 2]);
+                }
+                total += sizes[g] / (double) n * expected(group, group.length, shot | mask, childHit, childKey, null);
+                if (aborted) {
+                    if (best != null) best[0] = bestBit; // la mejor jugada evaluada entera
+                    return bestValue;
+                }
+            }
+            if (total < bestValue - EPSILON) {
+                bestValue = total;
+                bestBit = bit;
+            }
+            if (bestValue <= lower + EPSILON) break; // no se puede mejorar
+        }
+        table.store(stateKey, bestValue, n);
+        if (best != null) best[0] = bestBit;
+        return bestValue;
+    }
+
+    // Cada flota necesita al menos un disparo por casilla de barco sin tocar:
+    // la media es una cota inferior de lo que falta
+    private double lowerBound(int[] ids, int n, long hit) {
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += Long.bitCount(unions[ids[i]] & ~hit);
+        }
+        return total / (double) n;
+    }
+
+    // Casillas sin disparar que alguna flota ocupa, de más a menos probable
+    // (las que no ocupa ninguna serían agua seguro)
+    private int[] candidates(int[] ids, int n, long shot) {
+        int[] frequency = new int[64];
+        long any = 0;
+        for (int i = 0; i < n; i++) {
+            long free = unions[ids[i]] & ~shot;
+            any |= free;
+            for (long rest = free; rest != 0; rest &= rest - 1) {
+                frequency[Long.numberOfTrailingZeros(rest)]++;
+            }
+        }
+        int[] result = new int[Long.bitCount(any)];
+        int count = 0;
+        for (long rest = any; rest != 0; rest &= rest - 1) {
+            int bit = Long.numberOfTrailingZeros(rest);
+            int j = count++;
+            while (j > 0 && frequency[result[j - 1]] < frequency[bit]) {
+                result[j] = result[j - 1];
+                j--;
+            }
+            result[j] = bit;
+        }
+        // Una casilla ocupada en todas las flotas habrá que dispararla de todos
+        // modos: hacerlo ya solo adelanta información, así que no hay que ramificar
+        if (result.length > 0 && frequency[result[0]] == n) {
+            return new int[] {result[0]};
+        }
+        return result;
+    }
+
+    // Andanada: las casillas ocupadas en más flotas compatibles
+    private List<Coordinate> mostLikely(int count) {
+        int[] frequency = new int[cells.length];
+        for (int l = 0; l < layoutCount; l++) {
+            for (long rest = unions[l]; rest != 0; rest &= rest - 1) {
+                frequency[Long.numberOfTrailingZeros(rest)]++;
+            }
+        }
+        List<Coordinate> volley = new ArrayList<>(count);
+        boolean[] chosen = new boolean[cells.length];
+        while (volley.size() < count) {
+            int best = -1;
+            for (int i = 0; i < cells.length; i++) {
+                if (chosen[i] || taken.get(cells[i]) || frequency[i] == 0) continue;
+                if (best < 0 || frequency[i] > frequency[best]) best = i;
+            }
+            if (best < 0) break;
+            chosen[best] = true;
+            volley.add(toCoordinate(cells[best]));
+        }
+        // Sobran disparos: van a casillas sin disparar que ya se sabe que son agua
+        for (int i = 0, left = board.unshotCount(); i < left && volley.size() < count; i++) {
+            int cell = board.unshotCellAt(i);
+            int bit = bitOf(cell / cols, cell % cols);
+            if (!taken.get(cell) && (bit < 0 || !chosen[bit])) {
+                volley.add(toCoordinate(cell));
+            }
+        }
+        return volley;
+    }
+
+    // --- Utilidades de máscaras ---
+
+    private long shipAt(int layout, long mask) {
+        for (int s = layout * shipCount, end = s + shipCount; s < end; s++) {
+            if ((ships[s] & mask) != 0) return ships[s];
+        }
+        throw new IllegalStateException("No ship covers the cell");
+    }
+
+    private long openMask() {
+        long mask = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (openHits.get(cells[i])) mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    // Bit de la casilla (row, col), o -1 si no es relevante
+    private int bitOf(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+        int bit = Arrays.binarySearch(cells, row * cols + col);
+        return bit < 0 ? -1 : bit;
+    }
+
+    private long haloOf(long mask) {
+        long halo = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            int cell = cells[Long.numberOfTrailingZeros(rest)];
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int bit = bitOf(cell / cols + dr, cell % cols + dc);
+                    if (bit >= 0) halo |= 1L << bit;
+                }
+            }
+        }
+        return halo & ~mask;
+    }
+
+    // Con la regla sin contacto, las vecinas de un hundido no pueden tener barco
+    private boolean touchesSunk(int cell) {
+        if (!spec.isNoTouch()) return false;
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int i = 0; i < sunkCount; i++) {
+            int start = FleetPlacer.startIndex(sunkPlacements[i]);
+            int top = start / cols;
+            int left = start % cols;
+            int bottom = FleetPlacer.isHorizontal(sunkPlacements[i]) ? top : top + sunkLengths[i] - 1;
+            int right = FleetPlacer.isHorizontal(sunkPlacements[i]) ? left + sunkLengths[i] - 1 : left;
+            if (row >= top - 1 && row <= bottom + 1 && col >= left - 1 && col <= right + 1) return true;
+        }
+        return false;
+    }
+
+    private Coordinate toCoordinate(int cell) {
+        return Coordinate.of(cell / cols, cell % cols);
+    }
+
+    // --- Claves Zobrist ---
+    // Los números aleatorios por casilla salen de splitmix64 sobre (casilla, clase)
+    // en lugar de una tabla, para no reservar memoria del tamaño del tablero.
+
+    private static long zobrist(int cell, int kind) {
+        return mix(ZOBRIST_SEED + (3L * cell + kind) * 0x9E3779B97F4A7C15L);
+    }
+
+    // Un hundido revela el barco entero; se mezcla para que dos barcos vecinos
+    // no den la misma clave que otro reparto de las mismas casillas
+    private long shipKey(long mask) {
+        long sum = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            sum ^= zobrist(cells[Long.numberOfTrailingZeros(rest)], SUNK);
+        }
+        return mix(sum);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- Sincronización con el diario del tablero ---
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            rebuildFrom(target);
+        }
+        for (int move = synced, end = journal.size(); move < end; move++) {
+            if (journal.isShot(move)) {
+                apply(journal.cellIndex(move), journal.shotResult(move));
+            }
+        }
+        synced = journal.size();
+    }
+
+    private void rebuildFrom(Board target) {
+        BoardSpec previous = spec;
+        board = target;
+        spec = target.getSpec();
+        // Los valores guardados dependen de las reglas y la flota, no del tablero concreto
+        if (!spec.equals(previous)) {
+            table.clear();
+        }
+        synced = 0;
+        rewinds = target.getJournal().getRewindCount();
+        rows = spec.getRows();
+        cols = spec.getCols();
+        area = spec.getCellCount();
+        shots = new CellBits(area);
+        taken = new CellBits(area);
+        openHits = new CellBits(area);
+        sunkPlacements = new int[8];
+        sunkLengths = new int[8];
+        sunkCount = 0;
+        afloatByType = new int[Ship.Type.values().length];
+        for (Ship.Type type : spec.getFleet()) {
+            afloatByType[type.ordinal()]++;
+        }
+        key = 0;
+    }
+
+    private void apply(int cell, ShotOutcome.Result result) {
+        taken.set(cell);
+        if (!shots.set(cell)) return;
+        key ^= zobrist(cell, SHOT);
+        if (result == ShotOutcome.Result.HIT) {
+            openHits.set(cell);
+            key ^= zobrist(cell, HIT);
+        } else if (result == ShotOutcome.Result.SUNK) {
+            key ^= zobrist(cell, HIT);
+            Ship ship = board.getGrid().get(toCoordinate(cell));
+            afloatByType[ship.getType().ordinal()]--;
+            List<Coordinate> parts = ship.getPositions();
+            long sum = 0;
+            int start = Integer.MAX_VALUE;
+            for (Coordinate part : parts) {
+                int index = spec.index(part);
+                openHits.clear(index);
+                sum ^= zobrist(index, SUNK);
+                start = Math.min(start, index);
+            }
+            key ^= mix(sum);
+            boolean vertical = parts.size() > 1 && parts.get(0).getCol() == parts.get(1).getCol();
+            if (sunkCount == sunkPlacements.length) {
+                sunkPlacements = Arrays.copyOf(sunkPlacements, sunkCount * 2);
+                sunkLengths = Arrays.copyOf(sunkLengths, sunkCount * 2);
+            }
+            sunkPlacements[sunkCount] = (start << 1) | (vertical ? 1 : 0);
+            sunkLengths[sunkCount++] = parts.size();
+        }
+    }
+}
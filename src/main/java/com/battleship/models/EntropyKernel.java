@@ -0,0 +1,35 @@
+package com.battleship.models;
+
+// Cálculo por celdas de InformationGainStrategy, versión escalar.
+// Para cada celda c, con x_k = cover[k][c] / total[k] (fracción de colocaciones
+// del tamaño k que pasan por c) y count[k] barcos de ese tamaño:
+//   q = prob. de agua = Π_k (1 - x_k)^count[k]   (barcos independientes)
+//   p = 1 - q,  out[c] = H(p) = -(p ln p + q ln q), la información esperada del disparo
+// Las celdas con open[c] == 0 (ya disparadas o elegidas) salen con -1.
+// VectorEntropyKernel hace lo mismo con la Vector API.
+final class EntropyKernel {
+
+    // Cotas para no evaluar ln 0: ni agua ni tocado son nunca del todo seguros
+    static final float MAX_FRACTION = 1 - 1e-6f;
+    static final float MIN_LOG_Q = (float) Math.log(1e-6);
+    static final float MAX_LOG_Q = (float) Math.log1p(-1e-6);
+
+    private EntropyKernel() {
+    }
+
+    static void entropy(float[][] cover, float[] invTotal, float[] count, int lengths,
+                        float[] open, float[] out, int from, int to) {
+        for (int c = from; c < to; c++) {
+            float logQ = 0;
+            for (int k = 0; k < lengths; k++) {
+                float x = Math.min(cover[k][c] * invTotal[k], MAX_FRACTION);
+                logQ += count[k] * (float) Math.log1p(-x);
+            }
+            logQ = Math.min(Math.max(logQ, MIN_LOG_Q), MAX_LOG_Q);
+            float q = (float) Math.exp(logQ);
+            float p = 1 - q;
+            float h = -(p * (float) Math.log(p) + q * logQ);
+            out[c] = h * open[c] + (open[c] - 1);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.battleship.models;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Motor de colocación aleatoria de flotas.
+// Cada barco se elige uniformemente entre las colocaciones legales que da el
+// índice de tramos libres (FreeRunIndex), sin probar casillas al azar.
+// Si un barco no cabe, retrocede (backtracking) y prohíbe la elección anterior;
+// el número de pasos está acotado, de modo que siempre termina.
+// Con la regla sin contacto los barcos bloquean solo sus celdas, como sin la
+// regla, y se rechazan las colocaciones elegidas que tocan otro barco: sigue
+// siendo uniforme entre las legales y cuesta casi lo mismo que sin la regla
+// (reservar el halo entero parte ~1,75 veces más tramos). Si se rechazan
+// demasiadas seguidas quedan pocas legales y se enumeran.
+public final class FleetPlacer {
+
+    // Rechazos seguidos antes de enumerar las colocaciones legales
+    private static final int NO_TOUCH_TRIES = 32;
+
+    private final int rows;
+    private final int cols;
+    private final int maxLength;
+    private final boolean noTouch;
+    private FreeRunIndex runs;
+    private CellBits ships;    // regla sin contacto: celdas de los barcos puestos aquí
+    private int[] candidates;  // colocaciones legales al enumerar
+    private int candidateCount;
+
+    public FleetPlacer(int rows, int cols, int maxLength) {
+        this(rows, cols, maxLength, false);
+    }
+
+    public FleetPlacer(int rows, int cols, int maxLength, boolean noTouch) {
+        this.rows = rows;
+        this.cols = cols;
+        this.maxLength = maxLength;
+        this.noTouch = noTouch;
+        this.runs = new FreeRunIndex(rows, cols, maxLength);
+        this.ships = noTouch ? new CellBits(rows * cols) : null;
+    }
+
+    // Trabaja directamente sobre un índice existente (el del tablero, que ya
+    // reserva el halo de sus barcos)
+    FleetPlacer(FreeRunIndex runs, boolean noTouch) {
+        this.rows = runs.getRows();
+        this.cols = runs.getCols();
+        this.maxLength = runs.getMaxLength();
+        this.noTouch = noTouch;
+        this.runs = runs;
+        this.ships = noTouch ? new CellBits(rows * cols) : null;
+    }
+
+    public static FleetPlacer forSpec(BoardSpec spec) {
+        return new FleetPlacer(spec.getRows(), spec.getCols(), maxLength(spec.getFleet()), spec.isNoTouch());
+    }
+
+    // Vacía el tablero
+    public void reset() {
+        runs = new FreeRunIndex(rows, cols, maxLength);
+        ships = noTouch ? new CellBits(rows * cols) : null;
+    }
+
+    // Marca una celda como no disponible (p. ej. un barco ya colocado)
+    public void block(int index) {
+        runs.block(index);
+    }
+
+    // Marca un barco ya conocido (p. ej. uno hundido): bloquea sus casillas y,
+    // con la regla sin contacto, también su halo
+    public void blockShip(int placement, int length) {
+        apply(placement, length);
+    }
+
+    // Deshace blockShip
+    public void unblockShip(int placement, int length) {
+        remove(placement, length);
+    }
+
+    // ¿Cabe ahí un barco de esa longitud con lo ya bloqueado?
+    public boolean fits(int placement, int length) {
+        return runs.fits(placement, length) && !touchesShip(placement, length);
+    }
+
+    // Genera una colocación para 'fleet' y la devuelve en el mismo orden:
+    // placement = (índice de celda inicial << 1) | (1 si es vertical).
+    // Lanza IllegalStateException si la flota no cabe en el presupuesto de pasos.
+    public int[] generate(List<Ship.Type> fleet, RandomGenerator random) {
+        int n = fleet.size();
+        int[] lengths = new int[n];
+        Integer[] order = new Integer[n];
+        long totalCells = 0;
+        for (int i = 0; i < n; i++) {
+            lengths[i] = fleet.get(i).getSize();
+            order[i] = i;
+            totalCells += lengths[i];
+            if (lengths[i] > maxLength) {
+                throw new IllegalArgumentException("Ship longer than placer max length: " + lengths[i]);
+            }
+        }
+        if (totalCells > (long) rows * cols - runs.blockedCount()) {
+            throw new IllegalStateException("Fleet does not fit on a " + rows + "x" + cols + " board");
+        }
+        // Los barcos largos primero: son los que más restringen
+        Arrays.sort(order, (a, b) -> lengths[b] - lengths[a]);
+
+        int[] chosen = new int[n];
+        // Colocaciones prohibidas en cada nivel por el backtracking
+        int[][] bans = new int[n][];
+        int[] banCounts = new int[n];
+        long budget = 10_000L + 1_000L * n;
+
+        int depth = 0;
+        while (depth < n) {
+            int k = lengths[order[depth]];
+            // Barcos iguales son intercambiables: lo prohibido para uno lo está
+            // para los siguientes de su grupo (solo se descartan simetrías)
+            int group = depth;
+            while (group > 0 && lengths[order[group - 1]] == k) {
+                group--;
+            }
+            int placement = pickAllowed(k, bans, banCounts, group, depth, random);
+            if (placement >= 0) {
+                apply(placement, k);
+                chosen[depth++] = placement;
+            } else {
+                // No cabe: se olvidan las prohibiciones de este nivel y se retrocede
+                banCounts[depth] = 0;
+                if (depth == 0) {
+                    throw new IllegalStateException("Fleet does not fit on a " + rows + "x" + cols + " board");
+                }
+                depth--;
+                remove(chosen[depth], lengths[order[depth]]);
+                if (bans[depth] == null) {
+                    bans[depth] = new int[8];
+                } else if (banCounts[depth] == bans[depth].length) {
+                    bans[depth] = Arrays.copyOf(bans[depth], banCounts[depth] * 2);
+                }
+                bans[depth][banCounts[depth]++] = chosen[depth];
+            }
+            if (--budget < 0) {
+                // Deja el índice como estaba para poder volver a intentarlo
+                for (int d = 0; d < depth; d++) {
+                    remove(chosen[d], lengths[order[d]]);
+                }
+                throw new IllegalStateException("Fleet placement exceeded its step budget");
+            }
+        }
+
+        int[] layout = new int[n];
+        for (int d = 0; d < n; d++) {
+            layout[order[d]] = chosen[d];
+        }
+        return layout;
+    }
+
+    // Deshace una colocación devuelta por generate
+    public void release(int[] layout, List<Ship.Type> fleet) {
+        for (int i = 0; i < layout.length; i++) {
+            remove(layout[i], fleet.get(i).getSize());
+        }
+    }
+
+    public static int startIndex(int placement) { return placement >>> 1; }
+    public static boolean isHorizontal(int placement) { return (placement & 1) == 0; }
+
+    public static int maxLength(List<Ship.Type> fleet) {
+        int max = 1;
+        for (Ship.Type type : fleet) {
+            max = Math.max(max, type.getSize());
+        }
+        return max;
+    }
+
+    // Elige una colocación legal no prohibida en los niveles [from, to], o -1 si no queda ninguna
+    private int pickAllowed(int k, int[][] bans, int[] banCounts, int from, int to, RandomGenerator random) {
+        if (noTouch) {
+            return pickNoTouch(k, bans, banCounts, from, to, random);
+        }
+        long available = runs.count(k);
+        for (int d = from; d <= to; d++) {
+            for (int i = 0; i < banCounts[d]; i++) {
+                if (runs.fits(bans[d][i], k)) available--;
+            }
+        }
+        if (available <= 0) {
+            return -1;
+        }
+        while (true) {
+            int placement = runs.pick(k, random);
+            if (!isBanned(bans, banCounts, from, to, placement)) {
+                return placement;
+            }
+        }
+    }
+
+    // Regla sin contacto: la elegida al azar entre las que caben se rechaza si toca
+    // un barco (uniforme entre las legales). Tras NO_TOUCH_TRIES rechazos se
+    // enumeran las legales no prohibidas y se elige entre ellas.
+    private int pickNoTouch(int k, int[][] bans, int[] banCounts, int from, int to, RandomGenerator random) {
+        for (int tries = 0; tries < NO_TOUCH_TRIES; tries++) {
+            int placement = runs.pick(k, random);
+            if (placement < 0) {
+                return -1;
+            }
+            if (!touchesShip(placement, k) && !isBanned(bans, banCounts, from, to, placement)) {
+                return placement;
+            }
+        }
+        candidateCount = 0;
+        runs.forEach(k, placement -> {
+            if (!touchesShip(placement, k) && !isBanned(bans, banCounts, from, to, placement)) {
+                if (candidates == null) {
+                    candidates = new int[64];
+                } else if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                }
+                candidates[candidateCount++] = placement;
+            }
+        });
+        return candidateCount == 0 ? -1 : candidates[random.nextInt(candidateCount)];
+    }
+
+    // ¿Toca (también en diagonal) algún barco puesto aquí? Solo con la regla sin contacto
+    private boolean touchesShip(int placement, int length) {
+        if (!noTouch) {
+            return false;
+        }
+        int start = startIndex(placement);
+        int row = start / cols;
+        int col = start % cols;
+        int lastRow = isHorizontal(placement) ? row : row + length - 1;
+        int lastCol = isHorizontal(placement) ? col + length - 1 : col;
+        int c0 = Math.max(0, col - 1);
+        int c1 = Math.min(cols - 1, lastCol + 1);
+        for (int r = Math.max(0, row - 1), r1 = Math.min(rows - 1, lastRow + 1); r <= r1; r++) {
+            if (ships.nextSetBit(r * cols + c0, r * cols + c1 + 1) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(int placement, int length) {
+        int index = startIndex(placement);
+        int step = isHorizontal(placement) ? 1 : cols;
+        for (int i = 0; i < length; i++, index += step) {
+            runs.block(index);
+            if (noTouch) {
+                ships.set(index);
+            }
+        }
+    }
+
+    private void remove(int placement, int length) {
+        int index = startIndex(placement);
+        int step = isHorizontal(placement) ? 1 : cols;
+        for (int i = 0; i < length; i++, index += step) {
+            runs.unblock(index);
+            if (noTouch) {
+                ships.clear(index);
+            }
+        }
+    }
+
+    private static boolean isBanned(int[][] bans, int[] banCounts, int from, int to, int placement) {
+        for (int d = from; d <= to; d++) {
+            for (int i = 0; i < banCounts[d]; i++) {
+                if (bans[d][i] == placement) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,509 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+// Índice incremental de tramos libres ("runs") por fila y por columna.
+// Cada vez que se bloquea o libera una celda solo se parten o unen los dos
+// tramos que la contienen. Los tramos se agrupan en cubos por longitud, con
+// pesos precalculados por longitud de barco, lo que permite:
+//  - contar las colocaciones posibles de un barco de longitud k en O(cubos)
+//  - elegir una al azar de forma uniforme en O(cubos) esperado
+//  - enumerarlas todas en tiempo proporcional a la respuesta.
+// Una colocación se codifica como (índice de celda inicial << 1) | (1 si vertical),
+// igual que en FleetPlacer.
+public final class FreeRunIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int H = 0;
+    private static final int V = 1;
+    // Cubos exactos para longitudes 1..EXACT; por encima, un cubo por potencia de 2
+    private static final int EXACT = 16;
+
+    private final int rows;
+    private final int cols;
+    private final int area;
+    private final int maxLength;
+    private final int buckets;
+
+    // Celdas bloqueadas en orden por filas y en orden por columnas (traspuesto)
+    private final CellBits byRow;
+    private final CellBits byCol;
+
+    // Tramo que empieza en una clave de línea -> id + 1.
+    // Clave horizontal: fila * cols + col; vertical: area + col * rows + fila
+    private final CellMap runAt;
+    private int[] runKey;
+    private int[] runLen;
+    private int[] runSlot;
+    private int[] freeIds;
+    private int freeCount;
+    private int runCount;
+
+    // Reservas extra por celda cuando se solapan halos (regla sin contacto)
+    private final CellMap claims;
+
+    // bucketRuns[o][b]: ids de tramos de orientación o en el cubo b
+    private final int[][][] bucketRuns;
+    private final int[][] bucketSize;
+    // weight[o][k][b]: colocaciones de longitud k dentro del cubo b
+    private final long[][][] weight;
+
+    public FreeRunIndex(int rows, int cols, int maxLength) {
+        if ((long) rows * cols > BoardSpec.MAX_CELLS) {
+            throw new IllegalArgumentException("Board too large: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.area = rows * cols;
+        this.maxLength = maxLength;
+        this.buckets = bucketOf(Math.max(rows, cols)) + 1;
+        this.byRow = new CellBits(area);
+        this.byCol = new CellBits(area);
+        this.runAt = new CellMap(rows + cols);
+        this.claims = new CellMap();
+        int capacity = Math.max(16, rows + cols);
+        this.runKey = new int[capacity];
+        this.runLen = new int[capacity];
+        this.runSlot = new int[capacity];
+        this.freeIds = new int[16];
+        this.bucketRuns = new int[2][buckets][];
+        this.bucketSize = new int[2][buckets];
+        this.weight = new long[2][maxLength + 1][buckets];
+
+        for (int r = 0; r < rows; r++) {
+            addRun(r * cols, cols);
+        }
+        for (int c = 0; c < cols; c++) {
+            addRun(area + c * rows, rows);
+        }
+    }
+
+    // Copia independiente (los bitsets y el mapa se comparten hasta que se escriben)
+    FreeRunIndex(FreeRunIndex source) {
+        this.rows = source.rows;
+        this.cols = source.cols;
+        this.area = source.area;
+        this.maxLength = source.maxLength;
+        this.buckets = source.buckets;
+        this.byRow = source.byRow.copy();
+        this.byCol = source.byCol.copy();
+        this.runAt = source.runAt.copy();
+        this.claims = source.claims.copy();
+        this.runKey = source.runKey.clone();
+        this.runLen = source.runLen.clone();
+        this.runSlot = source.runSlot.clone();
+        this.freeIds = source.freeIds.clone();
+        this.freeCount = source.freeCount;
+        this.runCount = source.runCount;
+        this.bucketRuns = new int[2][buckets][];
+        this.bucketSize = new int[2][];
+        this.weight = new long[2][maxLength + 1][];
+        for (int o = H; o <= V; o++) {
+            for (int b = 0; b < buckets; b++) {
+                int[] ids = source.bucketRuns[o][b];
+                bucketRuns[o][b] = ids == null ? null : Arrays.copyOf(ids, Math.max(8, source.bucketSize[o][b]));
+            }
+            bucketSize[o] = source.bucketSize[o].clone();
+            for (int k = 0; k <= maxLength; k++) {
+                weight[o][k] = source.weight[o][k].clone();
+            }
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMaxLength() { return maxLength; }
+
+    public boolean isBlocked(int index) {
+        return byRow.get(index);
+    }
+
+    public int blockedCount() {
+        return byRow.size();
+    }
+
+    // ¿Cabe un barco de longitud k empezando en 'index'?
+    public boolean fits(int index, boolean horizontal, int k) {
+        int row = index / cols;
+        int col = index % cols;
+        if (horizontal) {
+            return col + k <= cols && byRow.nextSetBit(index, index + k) < 0;
+        }
+        int t = col * rows + row;
+        return row + k <= rows && byCol.nextSetBit(t, t + k) < 0;
+    }
+
+    public boolean fits(int placement, int k) {
+        return fits(placement >>> 1, (placement & 1) == 0, k);
+    }
+
+    // Número de colocaciones posibles para un barco de longitud k (k <= maxLength)
+    public long count(int k) {
+        if (k < 1 || k > maxLength) {
+            throw new IllegalArgumentException("Ship length out of range: " + k);
+        }
+        long total = 0;
+        for (int o = H; o <= V; o++) {
+            if (o == V && k == 1) break; // un barco de 1 solo se cuenta una vez
+            long[] w = weight[o][k];
+            for (int b = 0; b < buckets; b++) {
+                total += w[b];
+            }
+        }
+        return total;
+    }
+
+    // Colocación uniforme entre las posibles, o -1 si no hay ninguna
+    public int pick(int k, RandomGenerator random) {
+        long total = count(k);
+        if (total == 0) {
+            return -1;
+        }
+        long r = random.nextLong(total);
+        for (int o = H; o <= V; o++) {
+            long[] w = weight[o][k];
+            for (int b = 0; b < buckets; b++) {
+                if (r >= w[b]) {
+                    r -= w[b];
+                    continue;
+                }
+                return pickInBucket(o, b, k, random);
+            }
+        }
+        throw new IllegalStateException("Run weights out of sync");
+    }
+
+    // Recorre todas las colocaciones posibles de longitud k
+    public void forEach(int k, IntConsumer placements) {
+        for (int o = H; o <= V; o++) {
+            if (o == V && k == 1) break;
+            for (int b = bucketOf(k); b < buckets; b++) {
+                int[] ids = bucketRuns[o][b];
+                for (int i = 0, n = bucketSize[o][b]; i < n; i++) {
+                    int id = ids[i];
+                    for (int s = 0, last = runLen[id] - k; s <= last; s++) {
+                        placements.accept(placementAt(runKey[id], s));
+                    }
+                }
+            }
+        }
+    }
+
+    // Longitud del tramo libre que contiene 'index' en su fila o columna (0 si está bloqueada)
+    public int runLength(int index, boolean horizontal) {
+        if (byRow.get(index)) {
+            return 0;
+        }
+        int row = index / cols;
+        int col = index % cols;
+        if (horizontal) {
+            return spanEnd(byRow, index, row * cols, cols) - spanStart(byRow, index, row * cols);
+        }
+        int t = col * rows + row;
+        return spanEnd(byCol, t, col * rows, rows) - spanStart(byCol, t, col * rows);
+    }
+
+    // Elementos que copia el constructor de copia (para espaciar checkpoints)
+    int copySize() {
+        return runCount + runAt.size();
+    }
+
+    long footprintBytes() {
+        long bytes = byRow.footprintBytes() + byCol.footprintBytes() + runAt.footprintBytes() + claims.footprintBytes();
+        bytes += 3 * (16 + 4L * runKey.length) + 16 + 4L * freeIds.length;
+        for (int[][] orientation : bucketRuns) {
+            for (int[] ids : orientation) {
+                if (ids != null) bytes += 16 + 4L * ids.length;
+            }
+        }
+        return bytes + 2L * (maxLength + 1) * (16 + 8L * buckets);
+    }
+
+    // --- Mutación (solo desde el paquete) ---
+
+    // Bloquea una celda; devuelve false si ya lo estaba
+    boolean block(int index) {
+        if (!byRow.set(index)) {
+            return false;
+        }
+        int row = index / cols;
+        int col = index % cols;
+        int t = col * rows + row;
+        byCol.set(t);
+        split(byRow, index, row * cols, cols, 0);
+        split(byCol, t, col * rows, rows, area);
+        return true;
+    }
+
+    // Libera una celda; devuelve false si no estaba bloqueada
+    boolean unblock(int index) {
+        if (!byRow.clear(index)) {
+            return false;
+        }
+        int row = index / cols;
+        int col = index % cols;
+        int t = col * rows + row;
+        byCol.clear(t);
+        join(byRow, index, row * cols, cols, 0);
+        join(byCol, t, col * rows, rows, area);
+        return true;
+    }
+
+    // Regla sin contacto: un barco reserva sus celdas y las vecinas (también en
+    // diagonal), es decir, el rectángulo que lo rodea recortado al tablero.
+    // Así fits() y pick() ya solo ven posiciones que no tocan ningún barco.
+    // Las reservas se cuentan porque los halos de barcos cercanos se solapan.
+    void claimHalo(int start, boolean horizontal, int k) {
+        int row = start / cols;
+        int col = start % cols;
+        claimRect(Math.max(0, row - 1), Math.max(0, col - 1),
+                Math.min(rows - 1, (horizontal ? row : row + k - 1) + 1),
+                Math.min(cols - 1, (horizontal ? col + k - 1 : col) + 1));
+    }
+
+    void releaseHalo(int start, boolean horizontal, int k) {
+        int row = start / cols;
+        int col = start % cols;
+        releaseRect(Math.max(0, row - 1), Math.max(0, col - 1),
+                Math.min(rows - 1, (horizontal ? row : row + k - 1) + 1),
+                Math.min(cols - 1, (horizontal ? col + k - 1 : col) + 1));
+    }
+
+    // Reserva el rectángulo [r0, r1] x [c0, c1]. Las celdas libres se bloquean por
+    // tramos enteros: un solo corte de tramo por fila y por columna, no por celda.
+    // En 'claims' solo figuran las celdas con más de una reserva.
+    private void claimRect(int r0, int c0, int r1, int c1) {
+        for (int r = r0; r <= r1; r++) {
+            int lineStart = r * cols;
+            int a = -1;
+            for (int c = c0; c <= c1 + 1; c++) {
+                int index = lineStart + c;
+                if (c <= c1 && !byRow.get(index)) {
+                    if (a < 0) a = index;
+                    continue;
+                }
+                if (c <= c1) {
+                    int count = claims.get(index);
+                    claims.put(index, count == 0 ? 2 : count + 1);
+                }
+                if (a >= 0) {
+                    splitRange(byRow, a, index, lineStart, cols, 0);
+                    a = -1;
+                }
+            }
+        }
+        // Las celdas recién bloqueadas son las que ya están en byRow pero no en byCol
+        for (int c = c0; c <= c1; c++) {
+            int lineStart = c * rows;
+            int a = -1;
+            for (int r = r0; r <= r1 + 1; r++) {
+                int t = lineStart + r;
+                if (r <= r1 && !byCol.get(t)) {
+                    if (a < 0) a = t;
+                    continue;
+                }
+                if (a >= 0) {
+                    splitRange(byCol, a, t, lineStart, rows, area);
+                    a = -1;
+                }
+            }
+        }
+    }
+
+    private void releaseRect(int r0, int c0, int r1, int c1) {
+        for (int r = r0; r <= r1; r++) {
+            int lineStart = r * cols;
+            int a = -1;
+            for (int c = c0; c <= c1 + 1; c++) {
+                int index = lineStart + c;
+                if (c <= c1) {
+                    int count = claims.get(index);
+                    if (count == 0) {
+                        if (a < 0) a = index;
+                        continue;
+                    }
+                    if (count == 2) {
+                        claims.remove(index);
+                    } else {
+                        claims.put(index, count - 1);
+                    }
+                }
+                if (a >= 0) {
+                    joinRange(byRow, a, index, lineStart, cols, 0);
+                    a = -1;
+                }
+            }
+        }
+        // Las celdas liberadas son las que siguen en byCol pero ya no en byRow
+        for (int c = c0; c <= c1; c++) {
+            int lineStart = c * rows;
+            int a = -1;
+            for (int r = r0; r <= r1 + 1; r++) {
+                int t = lineStart + r;
+                if (r <= r1 && !byRow.get(r * cols + c)) {
+                    if (a < 0) a = t;
+                    continue;
+                }
+                if (a >= 0) {
+                    joinRange(byCol, a, t, lineStart, rows, area);
+                    a = -1;
+                }
+            }
+        }
+    }
+
+    // Bloquea [from, to), libre y dentro de un mismo tramo, y parte ese tramo
+    private void splitRange(CellBits bits, int from, int to, int lineStart, int lineLength, int keyBase) {
+        for (int i = from; i < to; i++) {
+            bits.set(i);
+        }
+        int start = spanStart(bits, from, lineStart);
+        int end = spanEnd(bits, to - 1, lineStart, lineLength);
+        removeRun(keyBase + start);
+        if (from > start) addRun(keyBase + start, from - start);
+        if (end > to) addRun(keyBase + to, end - to);
+    }
+
+    // Libera [from, to), bloqueado entero, y une los tramos de ambos lados
+    private void joinRange(CellBits bits, int from, int to, int lineStart, int lineLength, int keyBase) {
+        for (int i = from; i < to; i++) {
+            bits.clear(i);
+        }
+        int start = spanStart(bits, from, lineStart);
+        int end = spanEnd(bits, to - 1, lineStart, lineLength);
+        if (from > start) removeRun(keyBase + start);
+        if (end > to) removeRun(keyBase + to);
+        addRun(keyBase + start, end - start);
+    }
+
+    // La celda 'pos' (ya marcada) parte en dos el tramo que la contenía
+    private void split(CellBits bits, int pos, int lineStart, int lineLength, int keyBase) {
+        int start = spanStart(bits, pos, lineStart);
+        int end = spanEnd(bits, pos, lineStart, lineLength);
+        removeRun(keyBase + start);
+        if (pos > start) addRun(keyBase + start, pos - start);
+        if (end > pos + 1) addRun(keyBase + pos + 1, end - pos - 1);
+    }
+
+    // La celda 'pos' (ya liberada) une los tramos de ambos lados
+    private void join(CellBits bits, int pos, int lineStart, int lineLength, int keyBase) {
+        int start = spanStart(bits, pos, lineStart);
+        int end = spanEnd(bits, pos, lineStart, lineLength);
+        if (pos > start) removeRun(keyBase + start);
+        if (end > pos + 1) removeRun(keyBase + pos + 1);
+        addRun(keyBase + start, end - start);
+    }
+
+    // Primera celda libre del tramo que rodea 'pos' (sin mirar 'pos')
+    private static int spanStart(CellBits bits, int pos, int lineStart) {
+        int before = bits.previousSetBit(pos - 1, lineStart);
+        return before < 0 ? lineStart : before + 1;
+    }
+
+    // Fin (exclusivo) del tramo que rodea 'pos' (sin mirar 'pos')
+    private static int spanEnd(CellBits bits, int pos, int lineStart, int lineLength) {
+        int after = bits.nextSetBit(pos + 1, lineStart + lineLength);
+        return after < 0 ? lineStart + lineLength : after;
+    }
+
+    private int pickInBucket(int o, int b, int k, RandomGenerator random) {
+        int[] ids = bucketRuns[o][b];
+        int size = bucketSize[o][b];
+        int maxWeight = maxLengthOf(b) - k + 1;
+        while (true) {
+            int id = ids[random.nextInt(size)];
+            int w = runLen[id] - k + 1;
+            if (w <= 0) continue;
+            // Aceptación proporcional al peso: uniforme sobre colocaciones
+            if (w < maxWeight && random.nextInt(maxWeight) >= w) continue;
+            return placementAt(runKey[id], random.nextInt(w));
+        }
+    }
+
+    private int placementAt(int key, int offset) {
+        if (key < area) {
+            return (key + offset) << 1;
+        }
+        int t = key - area + offset;
+        int col = t / rows;
+        int row = t % rows;
+        return ((row * cols + col) << 1) | 1;
+    }
+
+    private void addRun(int key, int length) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = runCount++;
+            if (id == runKey.length) {
+                int capacity = id * 2;
+                runKey = Arrays.copyOf(runKey, capacity);
+                runLen = Arrays.copyOf(runLen, capacity);
+                runSlot = Arrays.copyOf(runSlot, capacity);
+            }
+        }
+        runKey[id] = key;
+        runLen[id] = length;
+        runAt.put(key, id + 1);
+
+        int o = key < area ? H : V;
+        int b = bucketOf(length);
+        int[] ids = bucketRuns[o][b];
+        int size = bucketSize[o][b];
+        if (ids == null) {
+            ids = bucketRuns[o][b] = new int[8];
+        } else if (size == ids.length) {
+            ids = bucketRuns[o][b] = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        runSlot[id] = size;
+        bucketSize[o][b] = size + 1;
+        addWeight(o, b, length, 1);
+    }
+
+    private void removeRun(int key) {
+        int id = runAt.remove(key) - 1;
+        if (id < 0) {
+            throw new IllegalStateException("No run starts at key " + key);
+        }
+        int o = key < area ? H : V;
+        int length = runLen[id];
+        int b = bucketOf(length);
+        int[] ids = bucketRuns[o][b];
+        int last = --bucketSize[o][b];
+        int moved = ids[last];
+        ids[runSlot[id]] = moved;
+        runSlot[moved] = runSlot[id];
+        addWeight(o, b, length, -1);
+
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void addWeight(int o, int b, int length, int sign) {
+        long[][] w = weight[o];
+        for (int k = 1, max = Math.min(maxLength, length); k <= max; k++) {
+            w[k][b] += sign * (long) (length - k + 1);
+        }
+    }
+
+    private static int bucketOf(int length) {
+        if (length <= EXACT) {
+            return length - 1;
+        }
+        return EXACT + (31 - Integer.numberOfLeadingZeros(length)) - 4;
+    }
+
+    private static int maxLengthOf(int bucket) {
+        if (bucket < EXACT) {
+            return bucket + 1;
+        }
+        return (1 << (bucket - EXACT + 5)) - 1;
+    }
+}
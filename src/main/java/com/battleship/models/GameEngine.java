@@ -0,0 +1,202 @@
+package com.battleship.models;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Una partida completa sin interfaz: los dos tableros, de quién es el turno,
+// repetir tras acertar, fin de partida y el turno de la máquina.
+// GameController solo traduce clics y avisos; sin Stage, una partida entre
+// bots es un bucle sobre playerShot() (véase headless()).
+//
+// Hilos: las jugadas del jugador llegan de un solo hilo (el de la interfaz).
+// El turno de la máquina corre en el ejecutor de MachineOpponent, o en el
+// mismo hilo del jugador si el motor es síncrono; en los dos casos el listener
+// recibe cada disparo ya con la fase actualizada.
+//
+// Azar: las flotas que rellena start() salen de la semilla de la partida
+// (GameSeed). Con la misma semilla y estrategias sembradas de ella, una partida
+// se repite disparo a disparo.
+public class GameEngine {
+
+    public enum Phase { PLACEMENT, PLAYER_TURN, ENEMY_TURN, PLAYER_WON, ENEMY_WON }
+
+    private final BoardSpec spec;
+    private final Board playerBoard;
+    private final Board enemyBoard;
+    private final GameEventListener listener;
+    private final boolean asynchronous;
+    private final MachineOpponent enemy;
+    private final GameSeed seed;
+    private volatile Phase phase = Phase.PLACEMENT;
+
+    public GameEngine(BoardSpec spec, ShotStrategy enemyStrategy, GameEventListener listener) {
+        this(new Board(spec), new Board(spec), enemyStrategy, listener, MachineOpponent.THINK_MILLIS, true);
+    }
+
+    public GameEngine(Board playerBoard, Board enemyBoard, ShotStrategy enemyStrategy, GameEventListener listener,
+                      long thinkMillis, boolean asynchronous) {
+        this(playerBoard, enemyBoard, enemyStrategy, listener, thinkMillis, asynchronous, GameSeed.random());
+    }
+
+    // asynchronous = false: el turno de la máquina se juega dentro de playerShot()/playerSalvo()
+    public GameEngine(Board playerBoard, Board enemyBoard, ShotStrategy enemyStrategy, GameEventListener listener,
+                      long thinkMillis, boolean asynchronous, GameSeed seed) {
+        if (!playerBoard.getSpec().equals(enemyBoard.getSpec())) {
+            throw new IllegalArgumentException("Boards have different rules: " + playerBoard.getSpec()
+                    + " vs " + enemyBoard.getSpec());
+        }
+        this.spec = playerBoard.getSpec();
+        this.playerBoard = playerBoard;
+        this.enemyBoard = enemyBoard;
+        this.listener = listener;
+        this.asynchronous = asynchronous;
+        this.seed = seed;
+        this.enemy = new MachineOpponent(playerBoard, new EnemyEvents(), 0, enemyStrategy, thinkMillis);
+    }
+
+    // Motor para partidas entre bots: sin esperas y con la máquina en el hilo que llama
+    public static GameEngine headless(BoardSpec spec, ShotStrategy enemyStrategy, GameSeed seed) {
+        return new GameEngine(new Board(spec), new Board(spec), enemyStrategy, null, 0, false, seed);
+    }
+
+    // Empieza la batalla (también al cargar una partida): el jugador dispara primero.
+    // Un tablero sin barcos se rellena al azar; una flota a medias es un error.
+    public void start() {
+        if (phase != Phase.PLACEMENT) {
+            throw new IllegalStateException("Game already started (" + phase + ")");
+        }
+        // Un generador por tablero aunque no se use: así el reparto no depende
+        // de qué tableros venían ya colocados
+        completeFleet(playerBoard, seed.split());
+        completeFleet(enemyBoard, seed.split());
+        phase = Phase.PLAYER_TURN;
+    }
+
+    private void completeFleet(Board board, RandomGenerator random) {
+        int placed = board.getFleet().size();
+        if (placed == 0) {
+            board.placeShipsRandomly(random);
+        } else if (placed != spec.getFleet().size()) {
+            throw new IllegalStateException("Fleet incomplete: " + placed + " of " + spec.getFleet().size() + " ships");
+        }
+    }
+
+    // Disparo del jugador (modo clásico). INVALID no cambia nada; agua pasa el
+    // turno a la máquina; tocado o hundido repite.
+    public ShotOutcome playerShot(Coordinate target) {
+        requirePlayerTurn();
+        if (spec.isSalvo()) {
+            throw new IllegalStateException("Salvo games fire with playerSalvo()");
+        }
+        ShotOutcome outcome = enemyBoard.receiveShot(target);
+        switch (outcome.getResult()) {
+            case MISS:
+                startEnemyTurn();
+                break;
+            case SUNK:
+                if (enemyBoard.allShipsSunk()) {
+                    finish(Phase.PLAYER_WON);
+                }
+                break;
+            default:
+                break;
+        }
+        return outcome;
+    }
+
+    // Andanada del jugador (modo salva): exactamente playerSalvoSize() casillas
+    public SalvoOutcome playerSalvo(List<Coordinate> targets) {
+        requirePlayerTurn();
+        if (!spec.isSalvo()) {
+            throw new IllegalStateException("Classic games fire with playerShot()");
+        }
+        if (targets.size() != playerSalvoSize()) {
+            throw new IllegalArgumentException("Salvo needs " + playerSalvoSize() + " targets, got " + targets.size());
+        }
+        SalvoOutcome salvo = enemyBoard.receiveShots(targets);
+        if (salvo.isFleetDestroyed()) {
+            finish(Phase.PLAYER_WON);
+        } else {
+            startEnemyTurn();
+        }
+        return salvo;
+    }
+
+    // Disparos por andanada: uno por barco propio a flote, sin pasar de las casillas libres
+    public int playerSalvoSize() {
+        return Math.min(playerBoard.shipsAfloat(), enemyBoard.unshotCount());
+    }
+
+    public int enemySalvoSize() {
+        return Math.min(enemyBoard.shipsAfloat(), playerBoard.unshotCount());
+    }
+
+    // Cancela la máquina (reiniciar o cerrar): no vuelve a disparar ni a avisar
+    public void stop() {
+        enemy.stop();
+    }
+
+    public Phase getPhase() { return phase; }
+    public boolean isPlayerTurn() { return phase == Phase.PLAYER_TURN; }
+    public boolean isOver() { return phase == Phase.PLAYER_WON || phase == Phase.ENEMY_WON; }
+    public BoardSpec getSpec() { return spec; }
+    public GameSeed getSeed() { return seed; }
+    public Board getPlayerBoard() { return playerBoard; }
+    public Board getEnemyBoard() { return enemyBoard; }
+
+    private void requirePlayerTurn() {
+        if (phase != Phase.PLAYER_TURN) {
+            throw new IllegalStateException("Not the player's turn (" + phase + ")");
+        }
+    }
+
+    private void startEnemyTurn() {
+        phase = Phase.ENEMY_TURN;
+        int salvoSize = spec.isSalvo() ? enemySalvoSize() : 0;
+        if (asynchronous) {
+            enemy.startTurn(salvoSize);
+        } else {
+            enemy.playTurn(salvoSize);
+        }
+    }
+
+    private void finish(Phase result) {
+        phase = result;
+        enemy.stop();
+        if (listener != null) {
+            listener.onGameOver(result == Phase.PLAYER_WON);
+        }
+    }
+
+    // Avisos de la máquina: primero se actualiza la fase y luego se reenvían.
+    // El jugador puede contestar antes de que vuelva el turno de la máquina:
+    // MachineOpponent.startTurn() encadena entonces el siguiente tras él.
+    private final class EnemyEvents implements GameEventListener {
+        @Override
+        public void onEnemyShotFired(ShotOutcome outcome, BoardSnapshot board) {
+            boolean won = board.allShipsSunk();
+            if (outcome.getResult() == ShotOutcome.Result.MISS) {
+                phase = Phase.PLAYER_TURN;
+            }
+            if (listener != null) {
+                listener.onEnemyShotFired(outcome, board);
+            }
+            if (won) {
+                finish(Phase.ENEMY_WON);
+            }
+        }
+
+        @Override
+        public void onEnemySalvoFired(SalvoOutcome salvo, BoardSnapshot board) {
+            if (!salvo.isFleetDestroyed()) {
+                phase = Phase.PLAYER_TURN;
+            }
+            if (listener != null) {
+                listener.onEnemySalvoFired(salvo, board);
+            }
+            if (salvo.isFleetDestroyed()) {
+                finish(Phase.ENEMY_WON);
+            }
+        }
+    }
+}
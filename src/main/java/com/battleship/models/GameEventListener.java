@@ -3,5 +3,13 @@ package com.battleship.models;
 // Interfaz para cumplir con el requisito de la rúbrica
 // y desacoplar la lógica de la máquina de la interfaz gráfica.
 public interface GameEventListener {
-    void onEnemyShotFired(Coordinate target, int result);
+    // 'board' es la instantánea del tablero atacado justo después del disparo
+    void onEnemyShotFired(ShotOutcome outcome, BoardSnapshot board);
+
+    // Modo salva: un único aviso por andanada completa
+    void onEnemySalvoFired(SalvoOutcome salvo, BoardSnapshot board);
+
+    // Fin de la partida (GameEngine), después del aviso del disparo que la decide
+    default void onGameOver(boolean playerWon) {
+    }
 }
\ No newline at end of file
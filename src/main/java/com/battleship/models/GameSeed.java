@@ -0,0 +1,62 @@
+package com.battleship.models;
+
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Semilla de una partida: todo su azar (flotas al azar, estrategias) sale de
+// generadores partidos de ella, así que la misma semilla repite la misma
+// partida disparo a disparo. Los generadores son L64X128MixRandom: rápidos,
+// partibles y sin estado compartido entre hilos.
+// Las partidas de un torneo no comparten generador: forGame() deriva la semilla
+// de cada una de la del torneo y su número, sin depender de qué hilo la juegue.
+// Excepción: en la interfaz la flota enemiga sale del PlacementPool si ya tiene
+// alguna, y esa búsqueda en segundo plano no depende de la semilla.
+public final class GameSeed {
+
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    private final long seed;
+    private final SplittableGenerator root; // protegido por this
+
+    public GameSeed(long seed) {
+        this.seed = seed;
+        this.root = FACTORY.create(seed);
+    }
+
+    // Semilla nueva para una partida normal (se puede apuntar para repetirla)
+    public static GameSeed random() {
+        return new GameSeed(FACTORY.create().nextLong());
+    }
+
+    // Semilla de la partida 'game' de una serie con semilla 'runSeed'
+    public static GameSeed forGame(long runSeed, long game) {
+        return new GameSeed(mix(runSeed + (game + 1) * 0x9E3779B97F4A7C15L));
+    }
+
+    // Generador independiente de todo lo anterior. El orden de las llamadas
+    // fija qué recibe cada uno: quien reparte debe hacerlo siempre igual.
+    public synchronized SplittableGenerator split() {
+        return root.split();
+    }
+
+    // Generador partible sin semilla conocida, para quien no juega una partida repetible
+    public static SplittableGenerator unseeded() {
+        return FACTORY.create();
+    }
+
+    public long getSeed() { return seed; }
+
+    // Mezcla de SplitMix64: semillas vecinas dan estados sin relación
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(seed);
+    }
+}
@@ -0,0 +1,198 @@
+package com.battleship.models;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Estrategia clásica de caza y remate:
+//  - Caza: disparos al azar a casillas desconocidas. Mientras el barco más
+//    pequeño a flote mida 2 o más, solo en casillas de una paridad (como un
+//    tablero de ajedrez), porque cualquier barco de ese tamaño pisa alguna.
+//  - Remate: tras un impacto prueba sus vecinas ortogonales; con dos impactos
+//    seguidos fija el eje y avanza por los extremos hasta hundir el barco.
+// El historial de impactos sale del diario del tablero atacado.
+public final class HuntTargetStrategy implements ShotStrategy {
+
+    private static final int[][] DIRECTIONS = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
+    private static final int HUNT_ATTEMPTS = 64;
+
+    private final RandomGenerator random;
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+
+    private int rows;
+    private int cols;
+    private int parity;
+    private CellBits taken; // disparadas o ya elegidas
+    // Impactos en barcos aún a flote, en orden de llegada
+    private int[] openHits;
+    private int openCount;
+    private int[] afloatByLength;
+
+    public HuntTargetStrategy() {
+        this(GameSeed.unseeded());
+    }
+
+    public HuntTargetStrategy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void reset() {
+        board = null;
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        sync(target);
+        int cell = openCount > 0 ? targetCell() : -1;
+        if (cell < 0) {
+            cell = huntCell();
+        }
+        taken.set(cell);
+        return Coordinate.of(cell / cols, cell % cols);
+    }
+
+    // --- Remate ---
+
+    private int targetCell() {
+        // 1. Eje fijado: un impacto con otro impacto abierto al lado
+        for (int i = 0; i < openCount; i++) {
+            int row = openHits[i] / cols;
+            int col = openHits[i] % cols;
+            for (int d = 1; d <= 2; d++) { // horizontal y vertical
+                int dr = DIRECTIONS[d][0];
+                int dc = DIRECTIONS[d][1];
+                if (!isOpenHit(row + dr, col + dc) && !isOpenHit(row - dr, col - dc)) continue;
+                int end = pastHits(row, col, dr, dc);
+                if (end >= 0) return end;
+                int start = pastHits(row, col, -dr, -dc);
+                if (start >= 0) return start;
+            }
+        }
+        // 2. Sin eje: vecinas ortogonales libres, empezando por el impacto más antiguo
+        int first = random.nextInt(DIRECTIONS.length);
+        for (int i = 0; i < openCount; i++) {
+            int row = openHits[i] / cols;
+            int col = openHits[i] % cols;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int[] dir = DIRECTIONS[(first + d) % DIRECTIONS.length];
+                int cell = freeCell(row + dir[0], col + dir[1]);
+                if (cell >= 0) return cell;
+            }
+        }
+        return -1;
+    }
+
+    // Primera casilla tras la racha de impactos abiertos en esa dirección, si está libre
+    private int pastHits(int row, int col, int dr, int dc) {
+        while (isOpenHit(row, col)) {
+            row += dr;
+            col += dc;
+        }
+        return freeCell(row, col);
+    }
+
+    private boolean isOpenHit(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return false;
+        int cell = row * cols + col;
+        for (int i = 0; i < openCount; i++) {
+            if (openHits[i] == cell) return true;
+        }
+        return false;
+    }
+
+    private int freeCell(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+        int cell = row * cols + col;
+        return taken.get(cell) ? -1 : cell;
+    }
+
+    // --- Caza ---
+
+    // Los sorteos salen del conjunto de celdas sin disparar del propio tablero
+    // (uniforme y O(1)); solo se descartan las reservadas y las de otra paridad
+    private int huntCell() {
+        boolean useParity = smallestAfloat() >= 2;
+        for (int attempt = 0; attempt < HUNT_ATTEMPTS; attempt++) {
+            int cell = board.randomUnshotCell(random);
+            if (cell < 0) break;
+            if (!taken.get(cell) && (!useParity || matchesParity(cell))) return cell;
+        }
+        // Casi no quedan válidas: recorrido de las celdas sin disparar desde un punto al azar
+        int left = board.unshotCount();
+        int start = left == 0 ? 0 : random.nextInt(left);
+        for (int pass = useParity ? 0 : 1; pass < 2; pass++) {
+            for (int i = 0; i < left; i++) {
+                int cell = board.unshotCellAt((start + i) % left);
+                if (!taken.get(cell) && (pass == 1 || matchesParity(cell))) return cell;
+            }
+        }
+        throw new IllegalStateException("No cells left to shoot");
+    }
+
+    private boolean matchesParity(int cell) {
+        return ((cell / cols + cell % cols) & 1) == parity;
+    }
+
+    private int smallestAfloat() {
+        for (int k = 1; k < afloatByLength.length; k++) {
+            if (afloatByLength[k] > 0) return k;
+        }
+        return 0;
+    }
+
+    // --- Sincronización con el diario del tablero ---
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            rebuildFrom(target);
+        }
+        for (int move = synced, end = journal.size(); move < end; move++) {
+            if (journal.isShot(move)) {
+                apply(journal.cellIndex(move), journal.shotResult(move));
+            }
+        }
+        synced = journal.size();
+    }
+
+    private void rebuildFrom(Board target) {
+        BoardSpec spec = target.getSpec();
+        board = target;
+        synced = 0;
+        rewinds = target.getJournal().getRewindCount();
+        rows = spec.getRows();
+        cols = spec.getCols();
+        parity = random.nextInt(2);
+        taken = new CellBits(spec.getCellCount());
+        openHits = new int[8];
+        openCount = 0;
+        afloatByLength = new int[FleetPlacer.maxLength(spec.getFleet()) + 1];
+        for (Ship.Type type : spec.getFleet()) {
+            afloatByLength[type.getSize()]++;
+        }
+    }
+
+    private void apply(int cell, ShotOutcome.Result result) {
+        taken.set(cell);
+        if (result == ShotOutcome.Result.HIT) {
+            if (openCount == openHits.length) {
+                openHits = Arrays.copyOf(openHits, openCount * 2);
+            }
+            openHits[openCount++] = cell;
+        } else if (result == ShotOutcome.Result.SUNK) {
+            Ship ship = board.getGrid().get(Coordinate.of(cell / cols, cell % cols));
+            afloatByLength[ship.getType().getSize()]--;
+            // Quita del historial los impactos del barco hundido
+            int kept = 0;
+            for (int i = 0; i < openCount; i++) {
+                if (board.getGrid().get(Coordinate.of(openHits[i] / cols, openHits[i] % cols)) != ship) {
+                    openHits[kept++] = openHits[i];
+                }
+            }
+            openCount = kept;
+        }
+    }
+}
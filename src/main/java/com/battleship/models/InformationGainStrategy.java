@@ -0,0 +1,269 @@
+package com.battleship.models;
+
+import java.util.Arrays;
+
+// Estrategia de máxima información: dispara a la celda cuyo resultado
+// (agua o tocado) menos se puede predecir, es decir, la de mayor entropía
+// H(p) = -(p ln p + q ln q), que es la ganancia de información esperada del
+// disparo sobre la distribución de flotas que quedan.
+//  - Caza: p sale de contar, por tamaño de barco a flote, las colocaciones que
+//    caben (sin agua ni hundidos) y cuántas pasan por cada celda, suponiendo los
+//    barcos independientes: q = Π_k (1 - cubren_k / total_k)^barcos_k.
+//  - Remate: con impactos abiertos, p es la fracción de las colocaciones que
+//    pasan por esos impactos que también pasan por la celda.
+// Las cuentas por celda (logaritmos y exponenciales) van en EntropyKernel, o en
+// VectorEntropyKernel si está el módulo jdk.incubator.vector (--add-modules).
+public final class InformationGainStrategy implements ShotStrategy {
+
+    static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final boolean vectorized;
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+
+    private int rows;
+    private int cols;
+    private int area;
+    private boolean noTouch;
+    private CellBits blocked;  // agua, hundidos y (sin contacto) sus vecinas: no cabe ningún barco
+    private CellBits openHits; // tocadas de barcos aún a flote
+    private int[] afloatByLength;
+
+    // Entrada y salida de los kernels, reutilizadas entre decisiones
+    private float[][] cover;  // por tamaño activo: colocaciones que pasan por cada celda
+    private float[] invTotal; // por tamaño activo: 1 / colocaciones
+    private float[] count;    // por tamaño activo: barcos
+    private float[] open;     // 1 = se puede elegir, 0 = disparada o ya elegida
+    private float[] gain;
+
+    private long lastDecisionNanos;
+
+    public InformationGainStrategy() {
+        this(VECTOR_API);
+    }
+
+    // vectorized = false fuerza la versión escalar (para comparar)
+    public InformationGainStrategy(boolean vectorized) {
+        if (vectorized && !VECTOR_API) {
+            throw new IllegalStateException("jdk.incubator.vector is not available (run with --add-modules jdk.incubator.vector)");
+        }
+        this.vectorized = vectorized;
+    }
+
+    public static boolean isVectorApiAvailable() { return VECTOR_API; }
+    public boolean isVectorized() { return vectorized; }
+    public long getLastDecisionNanos() { return lastDecisionNanos; }
+
+    @Override
+    public void reset() {
+        board = null;
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        long start = System.nanoTime();
+        sync(target);
+        int lengths = openHits.size() > 0 ? targetCover() : 0;
+        if (lengths == 0) {
+            lengths = huntCover();
+        }
+        if (vectorized) {
+            VectorEntropyKernel.entropy(cover, invTotal, count, lengths, open, gain, area);
+        } else {
+            EntropyKernel.entropy(cover, invTotal, count, lengths, open, gain, 0, area);
+        }
+        int cell = argmax();
+        if (cell < 0) {
+            throw new IllegalStateException("No cells left to shoot");
+        }
+        open[cell] = 0;
+        lastDecisionNanos = System.nanoTime() - start;
+        return Coordinate.of(cell / cols, cell % cols);
+    }
+
+    // --- Sincronización con el diario del tablero ---
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            rebuildFrom(target);
+        }
+        for (int move = synced, end = journal.size(); move < end; move++) {
+            if (journal.isShot(move)) {
+                apply(journal.cellIndex(move), journal.shotResult(move));
+            }
+        }
+        synced = journal.size();
+    }
+
+    private void rebuildFrom(Board target) {
+        BoardSpec spec = target.getSpec();
+        board = target;
+        synced = 0;
+        rewinds = target.getJournal().getRewindCount();
+        rows = spec.getRows();
+        cols = spec.getCols();
+        area = spec.getCellCount();
+        noTouch = spec.isNoTouch();
+        blocked = new CellBits(area);
+        openHits = new CellBits(area);
+        afloatByLength = new int[FleetPlacer.maxLength(spec.getFleet()) + 1];
+        for (Ship.Type type : spec.getFleet()) {
+            afloatByLength[type.getSize()]++;
+        }
+        cover = new float[afloatByLength.length][area];
+        invTotal = new float[afloatByLength.length];
+        count = new float[afloatByLength.length];
+        open = new float[area];
+        Arrays.fill(open, 1f);
+        gain = new float[area];
+    }
+
+    private void apply(int cell, ShotOutcome.Result result) {
+        open[cell] = 0;
+        switch (result) {
+            case MISS:
+                blocked.set(cell);
+                break;
+            case HIT:
+                openHits.set(cell);
+                break;
+            case SUNK:
+                Ship ship = board.getGrid().get(Coordinate.of(cell / cols, cell % cols));
+                for (Coordinate part : ship.getPositions()) {
+                    int index = board.getSpec().index(part);
+                    openHits.clear(index);
+                    blocked.set(index);
+                    if (noTouch) {
+                        blockNeighbours(part.getRow(), part.getCol());
+                    }
+                }
+                afloatByLength[ship.getType().getSize()]--;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void blockNeighbours(int row, int col) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                blocked.set(r * cols + c);
+            }
+        }
+    }
+
+    // --- Colocaciones ---
+
+    // Caza: una fila de 'cover' por tamaño a flote; devuelve cuántas se llenaron
+    private int huntCover() {
+        int lengths = 0;
+        for (int k = 1; k < afloatByLength.length; k++) {
+            if (afloatByLength[k] == 0) continue;
+            float[] row = cover[lengths];
+            Arrays.fill(row, 0f);
+            long placements = addRuns(row, k);
+            if (placements == 0) continue;
+            invTotal[lengths] = 1f / placements;
+            count[lengths] = afloatByLength[k];
+            lengths++;
+        }
+        return lengths;
+    }
+
+    // Suma a 'row' lo que cubre un barco de k en cada tramo libre de filas y
+    // columnas: en la posición i de un tramo de longitud L cabe en
+    // min(i, L - k) - max(0, i - k + 1) + 1 sitios. Devuelve las colocaciones.
+    private long addRuns(float[] row, int k) {
+        long placements = 0;
+        for (int r = 0; r < rows; r++) {
+            int rowStart = r * cols;
+            for (int from = 0; from < cols; ) {
+                int next = blocked.nextSetBit(rowStart + from, rowStart + cols);
+                int to = next < 0 ? cols : next - rowStart;
+                placements += addRun(row, rowStart + from, 1, to - from, k);
+                from = to + 1;
+            }
+        }
+        if (k == 1) {
+            return placements; // un barco de 1 se cuenta una vez
+        }
+        for (int c = 0; c < cols; c++) {
+            for (int from = 0; from < rows; ) {
+                int to = from;
+                while (to < rows && !blocked.get(to * cols + c)) to++;
+                placements += addRun(row, from * cols + c, cols, to - from, k);
+                from = to + 1;
+            }
+        }
+        return placements;
+    }
+
+    private static int addRun(float[] row, int first, int step, int length, int k) {
+        if (length < k) return 0;
+        for (int i = 0, cell = first; i < length; i++, cell += step) {
+            row[cell] += Math.min(i, length - k) - Math.max(0, i - k + 1) + 1;
+        }
+        return length - k + 1;
+    }
+
+    // Remate: colocaciones (por barcos de cada tamaño) que pasan por cada impacto
+    // abierto, todas en una sola fila de 'cover'; 0 si no cabe ninguna
+    private int targetCover() {
+        float[] row = cover[0];
+        Arrays.fill(row, 0f);
+        long total = 0;
+        for (int hit = openHits.nextSetBit(0); hit >= 0; hit = openHits.nextSetBit(hit + 1)) {
+            int r = hit / cols;
+            int c = hit % cols;
+            for (int k = 1; k < afloatByLength.length; k++) {
+                int weight = afloatByLength[k];
+                if (weight == 0) continue;
+                for (int s = Math.max(0, c - k + 1), last = Math.min(c, cols - k); s <= last; s++) {
+                    int first = r * cols + s;
+                    if (blocked.nextSetBit(first, first + k) >= 0) continue;
+                    for (int i = 0; i < k; i++) {
+                        row[first + i] += weight;
+                    }
+                    total += weight;
+                }
+                if (k == 1) continue;
+                for (int s = Math.max(0, r - k + 1), last = Math.min(r, rows - k); s <= last; s++) {
+                    if (blockedInColumn(s, c, k)) continue;
+                    for (int i = 0; i < k; i++) {
+                        row[(s + i) * cols + c] += weight;
+                    }
+                    total += weight;
+                }
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        invTotal[0] = 1f / total;
+        count[0] = 1;
+        return 1;
+    }
+
+    private boolean blockedInColumn(int fromRow, int col, int k) {
+        for (int i = 0; i < k; i++) {
+            if (blocked.get((fromRow + i) * cols + col)) return true;
+        }
+        return false;
+    }
+
+    // Celda elegible de mayor ganancia (la primera si hay empate), o -1
+    private int argmax() {
+        int best = -1;
+        float bestGain = -0.5f;
+        for (int c = 0; c < area; c++) {
+            if (gain[c] > bestGain) {
+                best = c;
+                bestGain = gain[c];
+            }
+        }
+        return best;
+    }
+}
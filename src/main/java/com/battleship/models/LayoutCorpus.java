@@ -0,0 +1,205 @@
+package com.battleship.models;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Corpus de flotas legales ya generadas, en un archivo de registros de ancho
+// fijo: la flota i está en cabecera + i * bytesPorFlota, así que leerla es una
+// lectura directa del mapa en memoria, sin recorrer ni cargar el archivo.
+// write() las genera con el motor de colocación de Board (FleetPlacer) y las
+// va escribiendo según salen: la memoria no crece con el número de flotas.
+//
+// Formato (big endian):
+//   int MAGIC, int VERSION, int filas, int columnas, int sinContacto (0/1),
+//   int barcos, int bytesPorBarco, long flotas
+//   byte[barcos] tipo de cada barco (ordinal de Ship.Type, en el orden de la flota)
+//   flotas registros de barcos * bytesPorBarco: cada barco es su colocación
+//   (inicio << 1) | vertical, como FleetPlacer, sin signo en bytesPorBarco bytes
+public final class LayoutCorpus {
+
+    static final int MAGIC = 0x42534C43; // "BSLC"
+    static final int VERSION = 1;
+    private static final int FIXED_HEADER_BYTES = 36;
+    // Cada trozo mapeado por separado cabe en un ByteBuffer (< 2 GB)
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    private final BoardSpec spec;
+    private final long size;
+    private final int ships;
+    private final int shipBytes;
+    private final int recordBytes;
+    private final long recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private LayoutCorpus(BoardSpec spec, long size, int shipBytes, MappedByteBuffer[] segments, long recordsPerSegment) {
+        this.spec = spec;
+        this.size = size;
+        this.ships = spec.getFleet().size();
+        this.shipBytes = shipBytes;
+        this.recordBytes = ships * shipBytes;
+        this.segments = segments;
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    // Escribe 'count' flotas al azar de las reglas de 'spec' (la salva no cuenta)
+    public static void write(Path file, BoardSpec spec, long count, RandomGenerator random) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative: " + count);
+        }
+        List<Ship.Type> fleet = spec.getFleet();
+        int shipBytes = bytesPerShip(spec);
+        FleetPlacer placer = FleetPlacer.forSpec(spec);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(spec.getRows());
+            out.writeInt(spec.getCols());
+            out.writeInt(spec.isNoTouch() ? 1 : 0);
+            out.writeInt(fleet.size());
+            out.writeInt(shipBytes);
+            out.writeLong(count);
+            for (Ship.Type type : fleet) {
+                out.writeByte(type.ordinal());
+            }
+            for (long i = 0; i < count; i++) {
+                int[] layout = placer.generate(fleet, random);
+                placer.release(layout, fleet);
+                for (int placement : layout) {
+                    for (int b = shipBytes - 1; b >= 0; b--) {
+                        out.writeByte(placement >>> (8 * b));
+                    }
+                }
+            }
+        }
+    }
+
+    // Abre un corpus en solo lectura. Lanza IOException si no lo es o está cortado.
+    public static LayoutCorpus open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, FIXED_HEADER_BYTES);
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a layout corpus: " + file);
+            }
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            boolean noTouch = header.getInt(16) != 0;
+            int ships = header.getInt(20);
+            int shipBytes = header.getInt(24);
+            long count = header.getLong(28);
+            if (rows <= 0 || cols <= 0 || ships <= 0 || ships > (long) rows * cols || count < 0) {
+                throw new IOException("Invalid corpus header in " + file);
+            }
+
+            ByteBuffer types = read(channel, ships);
+            if (types.hasRemaining()) {
+                throw new IOException("Corpus " + file + " is truncated");
+            }
+            Ship.Type[] all = Ship.Type.values();
+            List<Ship.Type> fleet = new ArrayList<>(ships);
+            for (int i = 0; i < ships; i++) {
+                int ordinal = types.get(i);
+                if (ordinal < 0 || ordinal >= all.length) {
+                    throw new IOException("Unknown ship type " + ordinal + " in " + file);
+                }
+                fleet.add(all[ordinal]);
+            }
+            BoardSpec spec;
+            try {
+                spec = new BoardSpec(rows, cols, fleet, false, noTouch);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid corpus header in " + file + ": " + e.getMessage());
+            }
+            if (shipBytes != bytesPerShip(spec)) {
+                throw new IOException("Invalid corpus header in " + file);
+            }
+
+            long start = FIXED_HEADER_BYTES + ships;
+            long recordBytes = (long) ships * shipBytes;
+            if (channel.size() != start + count * recordBytes) {
+                throw new IOException("Corpus " + file + " is truncated: " + channel.size() + " bytes for "
+                        + count + " layouts");
+            }
+            // Los mapas siguen siendo válidos después de cerrar el canal
+            long perSegment = Math.max(1, MAX_SEGMENT_BYTES / recordBytes);
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((count + perSegment - 1) / perSegment)];
+            for (int s = 0; s < segments.length; s++) {
+                long first = s * perSegment;
+                long records = Math.min(perSegment, count - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start + first * recordBytes, records * recordBytes);
+            }
+            return new LayoutCorpus(spec, count, shipBytes, segments, perSegment);
+        }
+    }
+
+    // Lee hasta 'bytes' bytes (menos si el archivo se acaba: quedan en remaining())
+    private static ByteBuffer read(FileChannel channel, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // read() puede devolver menos de lo pedido
+        }
+        return buffer;
+    }
+
+    // Bytes justos para la mayor colocación del tablero: 1 en 10x10, 3 en 1000x1000
+    static int bytesPerShip(BoardSpec spec) {
+        int max = (spec.getCellCount() << 1) - 1; // última casilla, vertical
+        return (32 - Integer.numberOfLeadingZeros(max) + 7) / 8;
+    }
+
+    public BoardSpec getSpec() { return spec; }
+
+    // Flotas del corpus
+    public long size() { return size; }
+
+    // Bytes por flota en el archivo
+    public int getLayoutBytes() { return recordBytes; }
+
+    // Flota i, en el formato de FleetPlacer / Board.placeFleet
+    public int[] layout(long i) {
+        int[] out = new int[ships];
+        layout(i, out);
+        return out;
+    }
+
+    // Igual, sin reservar memoria. Se puede llamar desde varios hilos a la vez.
+    public void layout(long i, int[] out) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Layout " + i + " of " + size);
+        }
+        if (out.length != ships) {
+            throw new IllegalArgumentException("Need room for " + ships + " ships, got " + out.length);
+        }
+        MappedByteBuffer segment = segments[(int) (i / recordsPerSegment)];
+        int at = (int) (i % recordsPerSegment) * recordBytes;
+        for (int s = 0; s < ships; s++) {
+            int placement = 0;
+            for (int b = 0; b < shipBytes; b++) {
+                placement = (placement << 8) | (segment.get(at++) & 0xFF);
+            }
+            out[s] = placement;
+        }
+    }
+
+    // Una flota del corpus elegida al azar
+    public int[] draw(RandomGenerator random) {
+        return layout(random.nextLong(size));
+    }
+
+    // Coloca la flota i en un tablero vacío de las mismas reglas
+    public void placeOn(Board board, long i) {
+        if (!board.getSpec().withSalvo(false).equals(spec)) {
+            throw new IllegalArgumentException("Board " + board.getSpec() + " does not match corpus " + spec);
+        }
+        board.placeFleet(layout(i));
+    }
+}
@@ -1,56 +1,181 @@
 package com.battleship.models;
 
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// Oponente de la máquina. Un mismo objeto juega toda la partida: cada turno se
+// lanza con startTurn() en un ejecutor compartido (sin crear hilos por turno) y
+// la estrategia conserva su estado de búsqueda de un turno al siguiente.
+// stop() lo cancela de forma determinista: al volver, ya no se disparará ni se
+// avisará al listener nunca más. run() y playTurn() juegan un turno en el hilo actual.
 public class MachineOpponent implements Runnable {
+    // Plazo máximo por decisión: la estrategia puede buscar hasta entonces, pero
+    // dispara en cuanto decide (el ritmo de la partida lo marca la vista)
+    public static final long THINK_MILLIS = 1500;
+    // Hilos de la IA compartidos por todas las partidas
+    public static final int AI_THREADS = 2;
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    // Daemon: no impiden cerrar la aplicación con un turno a medias
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newFixedThreadPool(AI_THREADS, task -> {
+        Thread thread = new Thread(task, "battleship-ai-" + THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Board targetBoard; // El tablero al que dispara (el del jugador)
     private final GameEventListener listener; // A quién avisar (el controlador)
-    private volatile boolean running; // Control del hilo
+    private final int salvoSize; // Disparos por andanada (0 = modo clásico)
+    // Elige los disparos; conviene reutilizarla entre turnos (se actualiza de forma incremental)
+    private final ShotStrategy strategy;
+    private final long thinkMillis; // 0 = jugar al instante (partidas sin interfaz)
+    private final ExecutorService executor;
+    private volatile boolean running; // false tras stop(): cambiarlo y disparar van bajo el cerrojo
+    private Future<?> turn; // turno en marcha o el último lanzado (protegido por this)
 
     public MachineOpponent(Board targetBoard, GameEventListener listener) {
+        this(targetBoard, listener, 0);
+    }
+
+    public MachineOpponent(Board targetBoard, GameEventListener listener, int salvoSize) {
+        this(targetBoard, listener, salvoSize, new OpeningBookStrategy(new EndgameStrategy(new DensityStrategy())));
+    }
+
+    public MachineOpponent(Board targetBoard, GameEventListener listener, int salvoSize, ShotStrategy strategy) {
+        this(targetBoard, listener, salvoSize, strategy, THINK_MILLIS);
+    }
+
+    public MachineOpponent(Board targetBoard, GameEventListener listener, int salvoSize, ShotStrategy strategy,
+                           long thinkMillis) {
+        this(targetBoard, listener, salvoSize, strategy, thinkMillis, SHARED_EXECUTOR);
+    }
+
+    public MachineOpponent(Board targetBoard, GameEventListener listener, int salvoSize, ShotStrategy strategy,
+                           long thinkMillis, ExecutorService executor) {
+        if (thinkMillis < 0) {
+            throw new IllegalArgumentException("Think time cannot be negative: " + thinkMillis);
+        }
         this.targetBoard = targetBoard;
         this.listener = listener;
+        this.salvoSize = salvoSize;
+        this.strategy = strategy;
+        this.thinkMillis = thinkMillis;
+        this.executor = executor;
         this.running = true;
     }
 
+    // Lanza un turno en el ejecutor (salvoSize = disparos de la andanada, 0 = clásico).
+    // El turno anterior puede no haber vuelto aún: cede la partida al avisar de su
+    // último disparo, así que el jugador ya puede haber contestado. El nuevo espera
+    // a que termine antes de elegir nada. Lanza IllegalStateException si el
+    // oponente está parado.
+    public synchronized Future<?> startTurn(int salvoSize) {
+        if (!running) {
+            throw new IllegalStateException("Opponent has been stopped");
+        }
+        Future<?> previous = turn;
+        turn = executor.submit(() -> {
+            if (awaitTurn(previous)) {
+                playTurn(salvoSize);
+            }
+        });
+        return turn;
+    }
+
+    // Espera a que acabe un turno anterior; false si a este lo interrumpe stop()
+    private static boolean awaitTurn(Future<?> previous) {
+        if (previous == null) {
+            return true;
+        }
+        try {
+            previous.get();
+        } catch (CancellationException | ExecutionException e) {
+            // Ya terminó: un fallo suyo no impide jugar este
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized boolean isTurnInProgress() {
+        return turn != null && !turn.isDone();
+    }
+
+    public boolean isRunning() { return running; }
+
+    // Cancela el turno en marcha (interrumpe la espera) y cualquier turno futuro
     public void stop() {
-        this.running = false;
+        Future<?> current;
+        synchronized (this) {
+            running = false;
+            current = turn;
+        }
+        if (current != null) {
+            current.cancel(true);
+        }
     }
 
     @Override
     public void run() {
-        boolean keepShooting = true;
-        Random random = new Random();
+        playTurn(salvoSize);
+    }
 
-        while (keepShooting && running) {
-            try {
-                Thread.sleep(1500); // Simular pensamiento
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    // Juega un turno en el hilo actual (partidas sin interfaz)
+    public void playTurn(int salvoSize) {
+        boolean keepShooting = true;
 
-            // 1. Lógica de selección de disparo (IA simple)
-            int row, col;
-            Coordinate target;
-            do {
-                row = random.nextInt(10);
-                col = random.nextInt(10);
-                target = new Coordinate(row, col);
-            } while (targetBoard.getShotsFired().contains(target));
+        if (salvoSize > 0) {
+            fireSalvo(salvoSize);
+            return;
+        }
 
-            // 2. Disparo en el modelo
-            int result = targetBoard.receiveShot(target);
+        while (keepShooting && running && !targetBoard.allShipsSunk()) {
+            // 1. Selección de disparo (delegada en la estrategia)
+            Coordinate target = strategy.chooseTarget(targetBoard, deadline());
 
-            // 3. Notificar al listener (Controlador)
-            if (listener != null) {
-                listener.onEnemyShotFired(target, result);
+            // 2. Disparo en el modelo y 3. aviso al listener (Controlador) con una
+            // instantánea tomada aquí, en el único hilo que escribe el tablero
+            // durante el turno. Bajo el cerrojo: tras stop() ya no ocurre ninguno.
+            ShotOutcome outcome;
+            synchronized (this) {
+                if (!running) return;
+                outcome = targetBoard.receiveShot(target);
+                if (listener != null) {
+                    listener.onEnemyShotFired(outcome, targetBoard.snapshot());
+                }
             }
 
             // 4. Decidir si sigue disparando
-            if (result == 0) {
+            if (outcome.getResult() == ShotOutcome.Result.MISS) {
                 keepShooting = false; // Agua, cede el turno
             }
-            // Si result es 1 o 2, keepShooting sigue true y el bucle se repite
+            // Si es tocado o hundido, keepShooting sigue true y el bucle se repite
         }
     }
-}
\ No newline at end of file
+
+    // Modo salva: elige toda la andanada antes de ver resultados, dispara de una
+    // vez y avisa una sola vez; el turno termina con la andanada
+    private void fireSalvo(int salvoSize) {
+        int shots = Math.min(salvoSize, targetBoard.unshotCount());
+        List<Coordinate> volley = strategy.chooseTargets(targetBoard, shots, deadline()); // sin casillas repetidas
+
+        synchronized (this) {
+            if (!running) return;
+            SalvoOutcome salvo = targetBoard.receiveShots(volley);
+            if (listener != null) {
+                listener.onEnemySalvoFired(salvo, targetBoard.snapshot());
+            }
+        }
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(thinkMillis);
+    }
+}
@@ -0,0 +1,516 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+// Estrategia de Monte Carlo para la máquina.
+// Genera miles de flotas al azar compatibles con lo observado en el tablero
+// atacado y dispara a la casilla desconocida que sale ocupada en más de ellas.
+// Una flota es compatible si no pisa agua ni hundidos (ni su halo, con la regla
+// sin contacto), cubre todos los impactos abiertos y ningún barco queda entero
+// sobre impactos (ya estaría hundido). Para no desperdiciar casi todas las
+// muestras, primero se colocan barcos sobre los impactos y luego el resto.
+// El muestreo se reparte en un ForkJoinPool: cada tarea tiene su propio
+// SplittableGenerator (partido del que viene del GameSeed de la partida), su
+// propio FleetPlacer y sus propios contadores, que solo se suman al final, así
+// que no hay estado mutable compartido. Busca hasta agotar
+// el plazo (o el presupuesto propio) o las muestras. Si no encuentra ninguna flota
+// compatible (o el tablero es enorme) delega en DensityStrategy.
+public final class MonteCarloStrategy implements ShotStrategy {
+
+    public static final long DEFAULT_BUDGET_MILLIS = MachineOpponent.THINK_MILLIS;
+    public static final int DEFAULT_MAX_SAMPLES = 200_000;
+    // Por encima, los contadores de cada tarea ocupan demasiado
+    private static final int MAX_CELLS = 1 << 16;
+    // Cada cuántas muestras mira el reloj una tarea
+    private static final int CLOCK_MASK = 15;
+
+    private final ForkJoinPool pool;
+    private final long budgetNanos;
+    private final int maxSamples;
+    private final SplittableGenerator seeds; // solo la usa el hilo que decide
+    private final DensityStrategy fallback = new DensityStrategy();
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+
+    private BoardSpec spec;
+    private int cols;
+    private int area;
+    private CellBits taken; // disparadas o ya elegidas
+    private int[] misses;
+    private int missCount;
+    private int[] openHits; // impactos en barcos aún a flote
+    private int openCount;
+    private int[] sunkPlacements; // (inicio << 1) | vertical, como FleetPlacer
+    private int[] sunkLengths;
+    private int sunkCount;
+    private int[] afloatByType;
+
+    // Estadísticas de la última búsqueda
+    private long lastSamples;
+    private long lastAccepted;
+    private long lastSearchNanos;
+
+    public MonteCarloStrategy() {
+        this(GameSeed.unseeded());
+    }
+
+    public MonteCarloStrategy(SplittableGenerator seeds) {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUDGET_MILLIS, DEFAULT_MAX_SAMPLES, seeds);
+    }
+
+    public MonteCarloStrategy(ForkJoinPool pool, long budgetMillis, int maxSamples, SplittableGenerator seeds) {
+        if (budgetMillis <= 0 || maxSamples <= 0) {
+            throw new IllegalArgumentException("Search budget must be positive");
+        }
+        this.pool = pool;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.maxSamples = maxSamples;
+        this.seeds = seeds;
+    }
+
+    @Override
+    public void reset() {
+        board = null;
+        fallback.reset();
+    }
+
+    // Sin plazo explícito busca durante su presupuesto
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        return chooseTarget(target, System.nanoTime() + budgetNanos);
+    }
+
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count) {
+        return chooseTargets(target, count, System.nanoTime() + budgetNanos);
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target, long deadline) {
+        return chooseTargets(target, 1, deadline).get(0);
+    }
+
+    // Una sola búsqueda para toda la andanada: las 'count' casillas más ocupadas.
+    // Con el plazo ya vencido no llega a muestrear y decide la densidad.
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count, long deadline) {
+        sync(target);
+        long start = System.nanoTime();
+        int[] counts = area <= MAX_CELLS ? search(deadline) : null;
+        lastSearchNanos = System.nanoTime() - start;
+
+        List<Coordinate> volley = new ArrayList<>(count);
+        if (counts == null) {
+            lastSamples = 0;
+            lastAccepted = 0;
+            for (Coordinate c : fallback.chooseTargets(target, count)) {
+                taken.set(spec.index(c));
+                volley.add(c);
+            }
+            return volley;
+        }
+        for (int i = 0; i < count; i++) {
+            int best = -1;
+            for (int cell = 0; cell < area; cell++) {
+                if (!taken.get(cell) && (best < 0 || counts[cell] > counts[best])) best = cell;
+            }
+            if (best < 0) {
+                throw new IllegalStateException("No cells left to shoot");
+            }
+            taken.set(best);
+            volley.add(Coordinate.of(best / cols, best % cols));
+        }
+        return volley;
+    }
+
+    public long getLastSampleCount() { return lastSamples; }
+    public long getLastAcceptedCount() { return lastAccepted; }
+    public long getLastSearchNanos() { return lastSearchNanos; }
+    public int getWorkerCount() { return pool.getParallelism(); }
+
+    // --- Búsqueda ---
+
+    // Ocupación de cada casilla en las flotas compatibles, o null si no salió ninguna
+    private int[] search(long deadline) {
+        Observation seen = observe();
+        int workers = Math.max(1, pool.getParallelism());
+        long quota = (maxSamples + workers - 1) / workers;
+        SampleTask[] tasks = new SampleTask[workers];
+        for (int i = 0; i < workers; i++) {
+            // split() no es seguro entre hilos: los flujos se reparten antes de lanzar
+            tasks[i] = new SampleTask(seen, seeds.split(), quota, deadline);
+        }
+        Tally tally = pool.invoke(new SearchTask(tasks));
+        lastSamples = tally.samples;
+        lastAccepted = tally.accepted;
+        return tally.accepted > 0 ? tally.counts : null;
+    }
+
+    private Observation observe() {
+        List<Ship.Type> remaining = new ArrayList<>();
+        int[] left = afloatByType.clone();
+        for (Ship.Type type : spec.getFleet()) {
+            if (left[type.ordinal()] > 0) {
+                left[type.ordinal()]--;
+                remaining.add(type);
+            }
+        }
+        return new Observation(spec, remaining,
+                Arrays.copyOf(misses, missCount),
+                Arrays.copyOf(openHits, openCount),
+                Arrays.copyOf(sunkPlacements, sunkCount),
+                Arrays.copyOf(sunkLengths, sunkCount));
+    }
+
+    // Lo observado, congelado para una búsqueda: las tareas solo lo leen
+    private static final class Observation {
+        final int rows;
+        final int cols;
+        final int maxLength;
+        final boolean noTouch;
+        final List<Ship.Type> remaining;
+        final int[] misses;
+        final int[] openHits;
+        final int[] sunkPlacements;
+        final int[] sunkLengths;
+
+        Observation(BoardSpec spec, List<Ship.Type> remaining, int[] misses, int[] openHits,
+                    int[] sunkPlacements, int[] sunkLengths) {
+            this.rows = spec.getRows();
+            this.cols = spec.getCols();
+            this.maxLength = FleetPlacer.maxLength(spec.getFleet());
+            this.noTouch = spec.isNoTouch();
+            this.remaining = List.copyOf(remaining);
+            this.misses = misses;
+            this.openHits = openHits;
+            this.sunkPlacements = sunkPlacements;
+            this.sunkLengths = sunkLengths;
+        }
+    }
+
+    private static final class Tally {
+        final int[] counts;
+        long samples;
+        long accepted;
+
+        Tally(int area) {
+            this.counts = new int[area];
+        }
+
+        void add(Tally other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            samples += other.samples;
+            accepted += other.accepted;
+        }
+    }
+
+    // Lanza todas las tareas de muestreo y suma sus contadores
+    private static final class SearchTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final SampleTask[] tasks;
+
+        SearchTask(SampleTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Tally compute() {
+            invokeAll(tasks);
+            Tally total = tasks[0].join();
+            for (int i = 1; i < tasks.length; i++) {
+                total.add(tasks[i].join());
+            }
+            return total;
+        }
+    }
+
+    // Un trabajador: flotas al azar con su propio generador hasta la cuota o el plazo.
+    // Cada muestra coloca primero, por cada impacto abierto aún sin cubrir, un
+    // barco elegido al azar entre las colocaciones que pasan por él, y después el
+    // resto de la flota con FleetPlacer (rechazando solo al final, casi ninguna
+    // flota cubriría varios impactos a la vez).
+    private static final class SampleTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Observation seen;
+        private final SplittableGenerator random;
+        private final long quota;
+        private final long deadline;
+
+        private FleetPlacer placer;
+        private int[] lengths;
+        private CellBits hits;
+        private int[] layout;     // colocación de cada barco de 'remaining', o -1
+        private int[] seeded;     // barcos colocados sobre impactos, en orden
+        private int seededCount;
+        private int[] candidates; // pares (barco, colocación) que pasan por un impacto
+        private int[] hitOrder;
+
+        SampleTask(Observation seen, SplittableGenerator random, long quota, long deadline) {
+            this.seen = seen;
+            this.random = random;
+            this.quota = quota;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Tally compute() {
+            int area = seen.rows * seen.cols;
+            placer = new FleetPlacer(seen.rows, seen.cols, seen.maxLength, seen.noTouch);
+            for (int cell : seen.misses) {
+                placer.block(cell);
+            }
+            for (int i = 0; i < seen.sunkPlacements.length; i++) {
+                placer.blockShip(seen.sunkPlacements[i], seen.sunkLengths[i]);
+            }
+            int n = seen.remaining.size();
+            lengths = new int[n];
+            for (int i = 0; i < n; i++) {
+                lengths[i] = seen.remaining.get(i).getSize();
+            }
+            hits = new CellBits(area);
+            for (int cell : seen.openHits) {
+                hits.set(cell);
+            }
+            layout = new int[n];
+            seeded = new int[n];
+            candidates = new int[2 * n * 2 * seen.maxLength];
+            hitOrder = seen.openHits.clone();
+
+            Tally tally = new Tally(area);
+            List<Ship.Type> rest = new ArrayList<>(n);
+            int[] restShips = new int[n];
+            while (tally.samples < quota
+                    && ((tally.samples & CLOCK_MASK) != 0 || System.nanoTime() < deadline)) {
+                tally.samples++;
+                if (seedHits()) {
+                    rest.clear();
+                    for (int i = 0; i < n; i++) {
+                        if (layout[i] < 0) {
+                            restShips[rest.size()] = i;
+                            rest.add(seen.remaining.get(i));
+                        }
+                    }
+                    int[] free = null;
+                    try {
+                        free = placer.generate(rest, random);
+                    } catch (IllegalStateException e) {
+                        // no cupo esta vez
+                    }
+                    if (free != null) {
+                        for (int i = 0; i < free.length; i++) {
+                            layout[restShips[i]] = free[i];
+                        }
+                        if (isConsistent()) {
+                            tally.accepted++;
+                            addCells(tally.counts);
+                        }
+                        placer.release(free, rest);
+                    }
+                }
+                for (int i = 0; i < seededCount; i++) {
+                    placer.unblockShip(layout[seeded[i]], lengths[seeded[i]]);
+                }
+            }
+            return tally;
+        }
+
+        // Cubre cada impacto abierto (en orden aleatorio) con un barco que pase por
+        // él; false si alguno ya no admite ninguno
+        private boolean seedHits() {
+            Arrays.fill(layout, -1);
+            seededCount = 0;
+            for (int i = hitOrder.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = hitOrder[i];
+                hitOrder[i] = hitOrder[j];
+                hitOrder[j] = swap;
+            }
+            for (int hit : hitOrder) {
+                if (isCovered(hit)) continue;
+                int found = collectCandidates(hit);
+                if (found == 0) return false;
+                int pick = 2 * random.nextInt(found);
+                int ship = candidates[pick];
+                layout[ship] = candidates[pick + 1];
+                placer.blockShip(layout[ship], lengths[ship]);
+                seeded[seededCount++] = ship;
+            }
+            return true;
+        }
+
+        // Colocaciones libres que pasan por 'hit', para el primer barco sin colocar
+        // de cada longitud (los barcos iguales son intercambiables)
+        private int collectCandidates(int hit) {
+            int row = hit / seen.cols;
+            int col = hit % seen.cols;
+            int found = 0;
+            for (int ship = 0; ship < lengths.length; ship++) {
+                int k = lengths[ship];
+                if (layout[ship] >= 0 || isLengthListed(ship)) continue;
+                for (int c = Math.max(0, col - k + 1), last = Math.min(col, seen.cols - k); c <= last; c++) {
+                    int placement = (row * seen.cols + c) << 1;
+                    if (placer.fits(placement, k)) {
+                        candidates[2 * found] = ship;
+                        candidates[2 * found++ + 1] = placement;
+                    }
+                }
+                if (k == 1) continue; // un barco de 1 solo se cuenta una vez
+                for (int r = Math.max(0, row - k + 1), last = Math.min(row, seen.rows - k); r <= last; r++) {
+                    int placement = ((r * seen.cols + col) << 1) | 1;
+                    if (placer.fits(placement, k)) {
+                        candidates[2 * found] = ship;
+                        candidates[2 * found++ + 1] = placement;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private boolean isLengthListed(int ship) {
+            for (int other = 0; other < ship; other++) {
+                if (layout[other] < 0 && lengths[other] == lengths[ship]) return true;
+            }
+            return false;
+        }
+
+        private boolean isCovered(int hit) {
+            for (int i = 0; i < seededCount; i++) {
+                if (covers(layout[seeded[i]], lengths[seeded[i]], hit)) return true;
+            }
+            return false;
+        }
+
+        private boolean covers(int placement, int length, int cell) {
+            int start = FleetPlacer.startIndex(placement);
+            if (FleetPlacer.isHorizontal(placement)) {
+                return cell / seen.cols == start / seen.cols && cell >= start && cell < start + length;
+            }
+            return cell % seen.cols == start % seen.cols && cell >= start && cell < start + length * seen.cols;
+        }
+
+        // Ningún barco entero sobre impactos (estaría hundido) y todos los impactos cubiertos;
+        // los barcos no se solapan, así que basta con contar cuántos impactos pisa cada uno
+        private boolean isConsistent() {
+            int covered = 0;
+            for (int i = 0; i < layout.length; i++) {
+                int cell = FleetPlacer.startIndex(layout[i]);
+                int step = FleetPlacer.isHorizontal(layout[i]) ? 1 : seen.cols;
+                int onHits = 0;
+                for (int j = 0; j < lengths[i]; j++, cell += step) {
+                    if (hits.get(cell)) onHits++;
+                }
+                if (onHits == lengths[i]) return false;
+                covered += onHits;
+            }
+            return covered == seen.openHits.length;
+        }
+
+        private void addCells(int[] counts) {
+            for (int i = 0; i < layout.length; i++) {
+                int cell = FleetPlacer.startIndex(layout[i]);
+                int step = FleetPlacer.isHorizontal(layout[i]) ? 1 : seen.cols;
+                for (int j = 0; j < lengths[i]; j++, cell += step) {
+                    counts[cell]++;
+                }
+            }
+        }
+    }
+
+    // --- Sincronización con el diario del tablero ---
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            rebuildFrom(target);
+        }
+        for (int move = synced, end = journal.size(); move < end; move++) {
+            if (journal.isShot(move)) {
+                apply(journal.cellIndex(move), journal.shotResult(move));
+            }
+        }
+        synced = journal.size();
+    }
+
+    private void rebuildFrom(Board target) {
+        board = target;
+        spec = target.getSpec();
+        synced = 0;
+        rewinds = target.getJournal().getRewindCount();
+        cols = spec.getCols();
+        area = spec.getCellCount();
+        taken = new CellBits(area);
+        misses = new int[16];
+        missCount = 0;
+        openHits = new int[8];
+        openCount = 0;
+        sunkPlacements = new int[8];
+        sunkLengths = new int[8];
+        sunkCount = 0;
+        afloatByType = new int[Ship.Type.values().length];
+        for (Ship.Type type : spec.getFleet()) {
+            afloatByType[type.ordinal()]++;
+        }
+    }
+
+    private void apply(int cell, ShotOutcome.Result result) {
+        taken.set(cell);
+        switch (result) {
+            case MISS:
+                if (missCount == misses.length) {
+                    misses = Arrays.copyOf(misses, missCount * 2);
+                }
+                misses[missCount++] = cell;
+                break;
+            case HIT:
+                if (openCount == openHits.length) {
+                    openHits = Arrays.copyOf(openHits, openCount * 2);
+                }
+                openHits[openCount++] = cell;
+                break;
+            case SUNK:
+                Ship ship = board.getGrid().get(Coordinate.of(cell / cols, cell % cols));
+                afloatByType[ship.getType().ordinal()]--;
+                addSunk(ship);
+                // Quita los impactos del barco hundido
+                int kept = 0;
+                for (int i = 0; i < openCount; i++) {
+                    if (board.getGrid().get(Coordinate.of(openHits[i] / cols, openHits[i] % cols)) != ship) {
+                        openHits[kept++] = openHits[i];
+                    }
+                }
+                openCount = kept;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void addSunk(Ship ship) {
+        List<Coordinate> parts = ship.getPositions();
+        boolean vertical = parts.size() > 1 && parts.get(0).getCol() == parts.get(1).getCol();
+        int top = Integer.MAX_VALUE;
+        int left = Integer.MAX_VALUE;
+        for (Coordinate part : parts) {
+            top = Math.min(top, part.getRow());
+            left = Math.min(left, part.getCol());
+        }
+        if (sunkCount == sunkPlacements.length) {
+            sunkPlacements = Arrays.copyOf(sunkPlacements, sunkCount * 2);
+            sunkLengths = Arrays.copyOf(sunkLengths, sunkCount * 2);
+        }
+        sunkPlacements[sunkCount] = ((top * cols + left) << 1) | (vertical ? 1 : 0);
+        sunkLengths[sunkCount++] = ship.getType().getSize();
+    }
+}
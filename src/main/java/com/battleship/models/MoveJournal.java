@@ -0,0 +1,125 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Diario compacto de jugadas de un tablero: una long por colocación o disparo.
+// Guarda también los movimientos deshechos (para rehacer) hasta que se juega
+// uno nuevo, y una instantánea cada cierto número de jugadas (al menos
+// CHECKPOINT_INTERVAL) para poder saltar a cualquier jugada sin rejugar la
+// partida entera.
+//
+// Formato de cada entrada:
+//   bits 0-31  índice de celda (inicio del barco o casilla disparada)
+//   bits 32-33 resultado del disparo (ordinal de ShotOutcome.Result) o 1 si el barco es vertical
+//   bits 34-36 tipo de barco (ordinal de Ship.Type), solo en colocaciones
+//   bit  63    1 = disparo, 0 = colocación
+public final class MoveJournal implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final int CHECKPOINT_INTERVAL = 64;
+
+    private static final long SHOT_FLAG = 1L << 63;
+    private static final long CELL_MASK = 0xFFFFFFFFL;
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private static final ShotOutcome.Result[] RESULTS = ShotOutcome.Result.values();
+
+    private long[] entries = new long[16];
+    private int size;   // entradas guardadas (incluye las deshechas)
+    private int cursor; // entradas aplicadas
+    private int rewinds; // veces que se ha retrocedido (para quien lee el diario incrementalmente)
+
+    // Instantáneas ordenadas por jugada
+    private transient int[] checkpointMoves = new int[4];
+    private transient Board.Checkpoint[] checkpointStates = new Board.Checkpoint[4];
+    private transient int checkpointCount;
+
+    // --- Lectura ---
+
+    // Jugadas aplicadas (la posición actual en el diario)
+    public int size() { return cursor; }
+    // Jugadas que se pueden rehacer
+    public int redoCount() { return size - cursor; }
+    // Cambia cada vez que se deshace o se salta hacia atrás: las jugadas ya leídas pueden no valer
+    public int getRewindCount() { return rewinds; }
+
+    public boolean isShot(int move) { return (entry(move) & SHOT_FLAG) != 0; }
+    public boolean isPlacement(int move) { return (entry(move) & SHOT_FLAG) == 0; }
+    public int cellIndex(int move) { return (int) (entry(move) & CELL_MASK); }
+    public ShotOutcome.Result shotResult(int move) { return RESULTS[(int) (entry(move) >>> 32) & 3]; }
+    public Ship.Type shipType(int move) { return TYPES[(int) (entry(move) >>> 34) & 7]; }
+    public boolean isVertical(int move) { return ((entry(move) >>> 32) & 1) != 0; }
+
+    private long entry(int move) {
+        if (move < 0 || move >= size) {
+            throw new IndexOutOfBoundsException("Move " + move + " of " + size);
+        }
+        return entries[move];
+    }
+
+    // --- Escritura (desde Board) ---
+
+    static long placement(int cell, Ship.Type type, boolean vertical) {
+        return (cell & CELL_MASK) | (vertical ? 1L << 32 : 0L) | ((long) type.ordinal() << 34);
+    }
+
+    static long shot(int cell, ShotOutcome.Result result) {
+        return SHOT_FLAG | (cell & CELL_MASK) | ((long) result.ordinal() << 32);
+    }
+
+    // Añade una jugada nueva; descarta lo que se pudiera rehacer
+    void record(long entry) {
+        if (cursor < size) {
+            size = cursor;
+            dropCheckpointsAfter(cursor);
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = entry;
+        cursor = size;
+    }
+
+    void stepBack() { cursor--; rewinds++; }
+    void stepForward() { cursor++; }
+    void moveTo(int move) {
+        if (move < cursor) rewinds++;
+        cursor = move;
+    }
+
+    // ¿Han pasado 'spacing' jugadas desde el último checkpoint? (nunca antes de uno existente)
+    boolean wantsCheckpoint(int spacing) {
+        int last = checkpointCount == 0 ? 0 : checkpointMoves[checkpointCount - 1];
+        return cursor - last >= spacing;
+    }
+
+    void addCheckpoint(Board.Checkpoint state) {
+        if (checkpointCount == checkpointMoves.length) {
+            checkpointMoves = Arrays.copyOf(checkpointMoves, checkpointCount * 2);
+            checkpointStates = Arrays.copyOf(checkpointStates, checkpointCount * 2);
+        }
+        checkpointMoves[checkpointCount] = cursor;
+        checkpointStates[checkpointCount++] = state;
+    }
+
+    // Índice del último checkpoint con jugada <= move (búsqueda binaria), o -1
+    int checkpointAtOrBefore(int move) {
+        int found = Arrays.binarySearch(checkpointMoves, 0, checkpointCount, move);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    int checkpointMove(int checkpoint) { return checkpointMoves[checkpoint]; }
+    Board.Checkpoint checkpointState(int checkpoint) { return checkpointStates[checkpoint]; }
+
+    private void dropCheckpointsAfter(int move) {
+        while (checkpointCount > 0 && checkpointMoves[checkpointCount - 1] > move) {
+            checkpointStates[--checkpointCount] = null;
+        }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        checkpointMoves = new int[4];
+        checkpointStates = new Board.Checkpoint[4];
+    }
+}
@@ -0,0 +1,214 @@
+package com.battleship.models;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// Libro de aperturas precalculado (tools.OpeningBookBuilder) para la máquina.
+// Para cada tamaño de tablero, flota y regla de contacto guarda la mejor
+// secuencia de primeros disparos suponiendo que todos son agua, y el patrón de
+// paridad (módulo y desplazamiento) con el que seguir cazando después.
+// Se guarda como recurso binario y se mapea en memoria la primera vez que se
+// consulta; los disparos se leen directamente del mapa, sin copiarlos.
+//
+// Formato (big endian):
+//   int MAGIC, int VERSION, int número de líneas, int número de tipos de barco
+//   por línea: int filas, int columnas, byte sin contacto, short[tipos] barcos
+//   por tipo (ordinal de Ship.Type), byte módulo de paridad, byte desplazamiento,
+//   short disparos, int posición de los disparos
+//   disparos: unsigned short por celda (índice fila * columnas + columna)
+public final class OpeningBook {
+
+    public static final String RESOURCE = "/com/battleship/opening-book.bin";
+    static final int MAGIC = 0x42534F42; // "BSOB"
+    static final int VERSION = 2;
+
+    private static final OpeningBook EMPTY = new OpeningBook(null);
+
+    private final ByteBuffer data;
+    private final int lines;
+    private final int[] rows;
+    private final int[] cols;
+    private final boolean[] noTouch;
+    private final int[][] fleetCounts;
+    private final int[] parityModulus;
+    private final int[] parityOffset;
+    private final int[] lengths;
+    private final int[] shotOffsets;
+
+    // Solo se carga en la primera llamada a shared()
+    private static final class Holder {
+        static final OpeningBook SHARED = loadResource();
+    }
+
+    // Una línea del libro, para escribirlo
+    public static final class Line {
+        private final BoardSpec spec;
+        private final int[] shots;
+        private final int parityModulus;
+        private final int parityOffset;
+
+        public Line(BoardSpec spec, int[] shots, int parityModulus, int parityOffset) {
+            if (parityModulus < 1 || parityModulus > Byte.MAX_VALUE || parityOffset < 0
+                    || parityOffset >= parityModulus) {
+                throw new IllegalArgumentException("Invalid parity " + parityOffset + " mod " + parityModulus);
+            }
+            this.spec = spec;
+            this.shots = shots.clone();
+            this.parityModulus = parityModulus;
+            this.parityOffset = parityOffset;
+        }
+    }
+
+    private OpeningBook(ByteBuffer data) {
+        this.data = data;
+        if (data == null) {
+            lines = 0;
+        } else {
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Not an opening book (version " + VERSION + ")");
+            }
+            lines = data.getInt(8);
+        }
+        rows = new int[lines];
+        cols = new int[lines];
+        noTouch = new boolean[lines];
+        fleetCounts = new int[lines][];
+        parityModulus = new int[lines];
+        parityOffset = new int[lines];
+        lengths = new int[lines];
+        shotOffsets = new int[lines];
+        if (data == null) {
+            return;
+        }
+        int types = data.getInt(12);
+        int at = 16;
+        for (int i = 0; i < lines; i++) {
+            rows[i] = data.getInt(at);
+            cols[i] = data.getInt(at + 4);
+            noTouch[i] = data.get(at + 8) != 0;
+            at += 9;
+            fleetCounts[i] = new int[Ship.Type.values().length];
+            for (int t = 0; t < types; t++, at += 2) {
+                if (t < fleetCounts[i].length) fleetCounts[i][t] = data.getShort(at);
+            }
+            parityModulus[i] = data.get(at);
+            parityOffset[i] = data.get(at + 1);
+            lengths[i] = data.getShort(at + 2);
+            shotOffsets[i] = data.getInt(at + 4);
+            at += 8;
+        }
+    }
+
+    // Libro incluido en la aplicación; vacío si no está
+    public static OpeningBook shared() {
+        return Holder.SHARED;
+    }
+
+    public static OpeningBook map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static OpeningBook loadResource() {
+        URL url = OpeningBook.class.getResource(RESOURCE);
+        if (url == null) {
+            return EMPTY;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return map(Paths.get(url.toURI()));
+            }
+            // Dentro de un jar no se puede mapear: se lee una vez
+            try (InputStream in = url.openStream()) {
+                return new OpeningBook(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return EMPTY;
+        }
+    }
+
+    // --- Consulta ---
+    // Solo lecturas absolutas sobre el mapa: se puede consultar desde cualquier hilo.
+
+    // Línea para estas reglas, o -1 si el libro no la tiene (el modo salva no cuenta)
+    public int find(BoardSpec spec) {
+        int[] counts = countByType(spec.getFleet());
+        for (int i = 0; i < lines; i++) {
+            if (rows[i] == spec.getRows() && cols[i] == spec.getCols() && noTouch[i] == spec.isNoTouch()
+                    && Arrays.equals(fleetCounts[i], counts)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() { return lines; }
+    public int length(int line) { return lengths[line]; }
+    // Tras la línea, basta cazar en las celdas con (fila + columna) % módulo == desplazamiento
+    public int parityModulus(int line) { return parityModulus[line]; }
+    public int parityOffset(int line) { return parityOffset[line]; }
+
+    // Celda del disparo número i de la línea
+    public int shot(int line, int i) {
+        if (i < 0 || i >= lengths[line]) {
+            throw new IndexOutOfBoundsException("Shot " + i + " of " + lengths[line]);
+        }
+        return Short.toUnsignedInt(data.getShort(shotOffsets[line] + 2 * i));
+    }
+
+    // --- Escritura ---
+
+    public static void write(OutputStream target, List<Line> book) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        int types = Ship.Type.values().length;
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(book.size());
+        out.writeInt(types);
+        int headerSize = 16 + book.size() * (9 + 2 * types + 8);
+        int offset = headerSize;
+        for (Line line : book) {
+            if (line.spec.getCellCount() > 0x10000) {
+                throw new IllegalArgumentException("Opening book boards are limited to 65536 cells");
+            }
+            out.writeInt(line.spec.getRows());
+            out.writeInt(line.spec.getCols());
+            out.writeByte(line.spec.isNoTouch() ? 1 : 0);
+            for (int count : countByType(line.spec.getFleet())) {
+                out.writeShort(count);
+            }
+            out.writeByte(line.parityModulus);
+            out.writeByte(line.parityOffset);
+            out.writeShort(line.shots.length);
+            out.writeInt(offset);
+            offset += 2 * line.shots.length;
+        }
+        for (Line line : book) {
+            for (int cell : line.shots) {
+                out.writeShort(cell);
+            }
+        }
+        out.flush();
+    }
+
+    private static int[] countByType(List<Ship.Type> fleet) {
+        int[] counts = new int[Ship.Type.values().length];
+        for (Ship.Type type : fleet) {
+            counts[type.ordinal()]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,185 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Aperturas de libro: mientras todos los disparos de la partida sean los de la
+// línea del libro y hayan caído al agua, responde con el siguiente de la línea
+// (una consulta a la tabla, sin calcular nada). Si la flota tiene paridad (todos
+// los barcos de al menos m casillas), al acabarse la línea sigue disparando al
+// azar en las celdas del patrón del libro. Con el primer impacto, o si la
+// partida se sale de la línea, decide la estrategia envuelta.
+// Cada partida juega la línea girada o reflejada al azar (una de las simetrías
+// del tablero): todas valen lo mismo y el rival no puede aprenderse una sola.
+public final class OpeningBookStrategy implements ShotStrategy {
+
+    private final ShotStrategy delegate;
+    private final OpeningBook book;
+    private final RandomGenerator random;
+
+    private Board board;
+    private int synced;  // jugadas del diario ya procesadas
+    private int rewinds; // getRewindCount() del diario al sincronizar
+    private int line;    // línea del libro, o -1 si la partida ya no la sigue
+    private int played;  // disparos de la línea ya hechos
+    private int next;    // siguiente disparo de la línea por entregar
+    private int symmetry; // bit 0 invierte filas, bit 1 columnas, bit 2 traspone (solo cuadrados)
+
+    public OpeningBookStrategy(ShotStrategy delegate) {
+        this(delegate, GameSeed.unseeded());
+    }
+
+    public OpeningBookStrategy(ShotStrategy delegate, RandomGenerator random) {
+        this(delegate, OpeningBook.shared(), random);
+    }
+
+    public OpeningBookStrategy(ShotStrategy delegate, OpeningBook book, RandomGenerator random) {
+        this.delegate = delegate;
+        this.book = book;
+        this.random = random;
+    }
+
+    @Override
+    public void reset() {
+        board = null;
+        delegate.reset();
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target) {
+        return chooseTargets(target, 1).get(0);
+    }
+
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count) {
+        List<Coordinate> volley = fromBook(target, count);
+        return volley != null ? volley : delegate.chooseTargets(target, count);
+    }
+
+    @Override
+    public Coordinate chooseTarget(Board target, long deadline) {
+        return chooseTargets(target, 1, deadline).get(0);
+    }
+
+    @Override
+    public List<Coordinate> chooseTargets(Board target, int count, long deadline) {
+        List<Coordinate> volley = fromBook(target, count);
+        return volley != null ? volley : delegate.chooseTargets(target, count, deadline);
+    }
+
+    public ShotStrategy getDelegate() { return delegate; }
+
+    // ¿La partida sigue dentro del libro?
+    public boolean isInBook() { return line >= 0; }
+
+    // Los 'count' disparos siguientes de la línea (completados con celdas del
+    // patrón de paridad si la línea se acaba), o null si no quedan tantos
+    private List<Coordinate> fromBook(Board target, int count) {
+        sync(target);
+        if (line < 0 || (next + count > book.length(line) && book.parityModulus(line) <= 1)) {
+            line = -1; // el resto de la partida, fuera del libro
+            return null;
+        }
+        int cols = target.getSpec().getCols();
+        List<Coordinate> volley = new ArrayList<>(count);
+        while (volley.size() < count && next < book.length(line)) {
+            int cell = shot(next++);
+            volley.add(Coordinate.of(cell / cols, cell % cols));
+        }
+        while (volley.size() < count) {
+            int cell = latticeCell(volley);
+            if (cell < 0) {
+                line = -1;
+                return null;
+            }
+            volley.add(Coordinate.of(cell / cols, cell % cols));
+        }
+        return volley;
+    }
+
+    // Celda al azar del patrón de paridad sin disparar ni elegida ya en la andanada; -1 si no queda
+    private int latticeCell(List<Coordinate> volley) {
+        BoardSpec spec = board.getSpec();
+        int free = 0;
+        for (int cell = 0; cell < spec.getCellCount(); cell++) {
+            if (isLatticeTarget(cell, volley)) free++;
+        }
+        if (free == 0) {
+            return -1;
+        }
+        int pick = random.nextInt(free);
+        for (int cell = 0; ; cell++) {
+            if (isLatticeTarget(cell, volley) && pick-- == 0) return cell;
+        }
+    }
+
+    private boolean isLatticeTarget(int cell, List<Coordinate> volley) {
+        if (!onLattice(cell)) {
+            return false;
+        }
+        Coordinate c = Coordinate.of(board.getSpec().rowOf(cell), board.getSpec().colOf(cell));
+        return !board.wasShotAt(c) && !volley.contains(c);
+    }
+
+    // ¿Está la celda en el patrón del libro? Se deshace la simetría de la partida
+    private boolean onLattice(int cell) {
+        int rows = board.getSpec().getRows();
+        int cols = board.getSpec().getCols();
+        int row = cell / cols;
+        int col = cell % cols;
+        if ((symmetry & 2) != 0) col = cols - 1 - col;
+        if ((symmetry & 1) != 0) row = rows - 1 - row;
+        // Trasponer no cambia fila + columna
+        return (row + col) % book.parityModulus(line) == book.parityOffset(line);
+    }
+
+    // Disparo i de la línea con la simetría de esta partida
+    private int shot(int i) {
+        int rows = board.getSpec().getRows();
+        int cols = board.getSpec().getCols();
+        int cell = book.shot(line, i);
+        int row = cell / cols;
+        int col = cell % cols;
+        if ((symmetry & 4) != 0) {
+            int swap = row;
+            row = col;
+            col = swap;
+        }
+        if ((symmetry & 1) != 0) row = rows - 1 - row;
+        if ((symmetry & 2) != 0) col = cols - 1 - col;
+        return row * cols + col;
+    }
+
+    private void sync(Board target) {
+        MoveJournal journal = target.getJournal();
+        if (target != board || journal.getRewindCount() != rewinds || journal.size() < synced) {
+            if (target != board) {
+                // Partida nueva; al deshacer jugadas se sigue con la misma simetría
+                BoardSpec spec = target.getSpec();
+                symmetry = random.nextInt(spec.getRows() == spec.getCols() ? 8 : 4);
+            }
+            board = target;
+            synced = 0;
+            rewinds = journal.getRewindCount();
+            line = book.find(target.getSpec());
+            played = 0;
+            next = 0;
+        }
+        for (int move = synced, end = journal.size(); move < end && line >= 0; move++) {
+            if (!journal.isShot(move)) continue;
+            boolean miss = journal.shotResult(move) == ShotOutcome.Result.MISS;
+            if (played < book.length(line)) {
+                if (miss && journal.cellIndex(move) == shot(played)) {
+                    played++;
+                } else {
+                    line = -1;
+                }
+            } else if (!miss || book.parityModulus(line) <= 1) {
+                line = -1; // la caza por paridad dura hasta el primer impacto
+            }
+        }
+        synced = journal.size();
+        next = Math.max(next, played);
+    }
+}
@@ -0,0 +1,130 @@
+package com.battleship.models;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Dónde suelen colocar los barcos los jugadores humanos, partida tras partida.
+// Es un archivo de tamaño fijo por tamaño de tablero con un contador por celda
+// y tipo de barco, mapeado en memoria: registrar una partida suma 1 en las
+// celdas de cada barco (coste fijo, no depende de las partidas guardadas) y
+// leer un contador es una lectura directa del mapa, sin cargar ni interpretar nada.
+//
+// Formato (big endian):
+//   int MAGIC, int VERSION, int filas, int columnas, int tipos, int partidas
+//   int[tipos][celdas] contadores (ordinal de Ship.Type, índice fila * columnas + columna)
+public final class PlacementHeatmap {
+
+    static final int MAGIC = 0x4253484D; // "BSHM"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int GAMES_AT = 20;
+    // Más celdas no merece un archivo: el tablero se juega sin historial
+    public static final int MAX_CELLS = 1 << 20;
+
+    private static final Map<String, PlacementHeatmap> SHARED = new HashMap<>();
+
+    private final MappedByteBuffer data;
+    private final int rows;
+    private final int cols;
+
+    private PlacementHeatmap(MappedByteBuffer data, int rows, int cols) {
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    // Archivo de la aplicación para este tamaño de tablero (junto a la partida
+    // guardada); null si el tablero es demasiado grande o no se puede abrir
+    public static synchronized PlacementHeatmap shared(BoardSpec spec) {
+        String key = spec.getRows() + "x" + spec.getCols();
+        if (!SHARED.containsKey(key)) {
+            PlacementHeatmap heatmap = null;
+            if (spec.getCellCount() <= MAX_CELLS) {
+                try {
+                    heatmap = open(Paths.get("battleship_heatmap_" + key + ".bin"), spec.getRows(), spec.getCols());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            SHARED.put(key, heatmap);
+        }
+        return SHARED.get(key);
+    }
+
+    // Abre (o crea vacío) el archivo; si es de otra versión o de otro tamaño se reinicia
+    public static PlacementHeatmap open(Path file, int rows, int cols) throws IOException {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid heatmap size: " + rows + "x" + cols);
+        }
+        int types = Ship.Type.values().length;
+        long size = HEADER_BYTES + 4L * types * rows * cols;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = channel.size() != size;
+            if (fresh) {
+                channel.truncate(0);
+            }
+            // El mapa sigue siendo válido después de cerrar el canal
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (fresh || data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(8) != rows
+                    || data.getInt(12) != cols || data.getInt(16) != types) {
+                for (long i = HEADER_BYTES; i < size; i += 4) {
+                    data.putInt((int) i, 0);
+                }
+                data.putInt(0, MAGIC);
+                data.putInt(4, VERSION);
+                data.putInt(8, rows);
+                data.putInt(12, cols);
+                data.putInt(16, types);
+                data.putInt(GAMES_AT, 0);
+                data.force();
+            }
+            return new PlacementHeatmap(data, rows, cols);
+        }
+    }
+
+    public boolean matches(BoardSpec spec) {
+        return spec.getRows() == rows && spec.getCols() == cols;
+    }
+
+    // Partidas registradas
+    public int games() {
+        return data.getInt(GAMES_AT);
+    }
+
+    // Veces que un barco de este tipo ocupó la celda
+    public int count(Ship.Type type, int cell) {
+        return data.getInt(offset(type, cell));
+    }
+
+    // Suma la colocación final de la flota de un jugador
+    public synchronized void record(Board board) {
+        if (!matches(board.getSpec())) {
+            throw new IllegalArgumentException("Board " + board.getSpec() + " does not match heatmap " + rows + "x" + cols);
+        }
+        for (Ship ship : board.getFleet()) {
+            for (Coordinate c : ship.getPositions()) {
+                int at = offset(ship.getType(), c.getRow() * cols + c.getCol());
+                int value = data.getInt(at);
+                if (value < Integer.MAX_VALUE) {
+                    data.putInt(at, value + 1);
+                }
+            }
+        }
+        int games = games();
+        if (games < Integer.MAX_VALUE) {
+            data.putInt(GAMES_AT, games + 1);
+        }
+        data.force();
+    }
+
+    private int offset(Ship.Type type, int cell) {
+        return HEADER_BYTES + 4 * (type.ordinal() * rows * cols + cell);
+    }
+}
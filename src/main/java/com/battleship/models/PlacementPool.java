@@ -0,0 +1,194 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+// Colocación adversaria de la flota enemiga.
+// En segundo plano se generan flotas legales al azar y se juega contra cada una
+// con un panel de estrategias de caza; una flota es mejor cuantos más disparos
+// necesita el panel para hundirla (menos aciertos por disparo). Las mejores se
+// guardan ordenadas en un pool pequeño: placeOn() toma la mejor al instante y,
+// si todavía no hay ninguna, deja el tablero vacío para que GameEngine.start()
+// lo coloque con la semilla de la partida, así empezar la partida nunca espera.
+// La búsqueda depende del tiempo que haya tenido, así que una flota del pool no
+// sale de la semilla de la partida: es lo único que la semilla no repite.
+public final class PlacementPool {
+
+    public static final int POOL_SIZE = 16;
+    static final int CANDIDATES_PER_ROUND = 32;
+    // Rondas seguidas por start(); después descansa hasta el siguiente start()
+    static final int MAX_ROUNDS = 128;
+    // Partidas de caza al azar por flota (la de densidad es determinista: una basta)
+    static final int HUNT_TRIALS = 4;
+    // Hilos de la búsqueda de la aplicación: pocos, para no quitárselos a la IA
+    // (Monte Carlo usa el pool común de ForkJoin mientras se juega)
+    public static final int SEARCH_THREADS = 1;
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    // Daemon: no impiden cerrar la aplicación con una ronda a medias
+    private static final Executor SHARED_EXECUTOR = Executors.newFixedThreadPool(SEARCH_THREADS, task -> {
+        Thread thread = new Thread(task, "battleship-placement-" + THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<BoardSpec, PlacementPool> SHARED = new HashMap<>();
+
+    private final BoardSpec spec;
+    private final Executor executor;
+    private final int capacity;
+
+    // Protegidos por this
+    private final SplittableGenerator seeds;
+    private final List<Scored> ranked = new ArrayList<>(); // más disparos primero
+    private boolean running;
+    private int rounds;
+    private long evaluated;
+
+    private static final class Scored {
+        final int[] layout;
+        final double shots; // disparos medios del panel para hundirla
+
+        Scored(int[] layout, double shots) {
+            this.layout = layout;
+            this.shots = shots;
+        }
+    }
+
+    // Pool de la aplicación para estas reglas (la salva no cambia la colocación)
+    public static synchronized PlacementPool shared(BoardSpec spec) {
+        return SHARED.computeIfAbsent(spec.withSalvo(false), PlacementPool::new);
+    }
+
+    public PlacementPool(BoardSpec spec) {
+        this(spec, SHARED_EXECUTOR, POOL_SIZE, GameSeed.unseeded());
+    }
+
+    public PlacementPool(BoardSpec spec, Executor executor, int capacity, SplittableGenerator seeds) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.spec = spec.withSalvo(false);
+        this.executor = executor;
+        this.capacity = capacity;
+        this.seeds = seeds;
+    }
+
+    // Empieza (o alarga) la búsqueda en segundo plano; no bloquea
+    public synchronized void start() {
+        rounds = 0;
+        if (!running) {
+            running = true;
+            launchRound();
+        }
+    }
+
+    // No lanza más rondas; la que esté en marcha termina y también cuenta
+    public synchronized void stop() {
+        running = false;
+    }
+
+    // Coloca en 'board' la mejor flota del pool (y la quita). Devuelve false, sin
+    // tocar el tablero, si el pool aún está vacío.
+    public boolean placeOn(Board board) {
+        if (!board.getSpec().withSalvo(false).equals(spec)) {
+            throw new IllegalArgumentException("Board " + board.getSpec() + " does not match pool " + spec);
+        }
+        Scored best;
+        synchronized (this) {
+            best = ranked.isEmpty() ? null : ranked.remove(0);
+        }
+        if (best == null) {
+            return false;
+        }
+        board.placeFleet(best.layout);
+        return true;
+    }
+
+    public synchronized int size() { return ranked.size(); }
+    public synchronized boolean isRunning() { return running; }
+    public synchronized long getEvaluatedCount() { return evaluated; }
+
+    // Disparos medios del panel contra la mejor flota del pool, o NaN si está vacío
+    public synchronized double getBestScore() {
+        return ranked.isEmpty() ? Double.NaN : ranked.get(0).shots;
+    }
+
+    // --- Búsqueda ---
+
+    private void launchRound() {
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[CANDIDATES_PER_ROUND];
+        for (int i = 0; i < tasks.length; i++) {
+            SplittableGenerator random = seeds.split();
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                Scored candidate = evaluate(random);
+                if (candidate != null) {
+                    offer(candidate);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(tasks).whenComplete((done, error) -> roundDone(error));
+    }
+
+    private synchronized void roundDone(Throwable error) {
+        if (error != null) {
+            error.printStackTrace();
+            running = false;
+            return;
+        }
+        if (running && ++rounds < MAX_ROUNDS) {
+            launchRound();
+        } else {
+            running = false;
+        }
+    }
+
+    // Una flota al azar, puntuada contra el panel, o null si no se encontró
+    private Scored evaluate(SplittableGenerator random) {
+        int[] layout;
+        try {
+            layout = FleetPlacer.forSpec(spec).generate(spec.getFleet(), random);
+        } catch (IllegalStateException e) {
+            // Tablero apretado (o sin contacto) y se agotó el presupuesto de pasos:
+            // se descarta esta muestra, la ronda sigue con las demás
+            return null;
+        }
+        double shots = shotsToSink(layout, new DensityStrategy());
+        for (int t = 0; t < HUNT_TRIALS; t++) {
+            shots += shotsToSink(layout, new HuntTargetStrategy(random.split()));
+        }
+        return new Scored(layout, shots / (1 + HUNT_TRIALS));
+    }
+
+    private int shotsToSink(int[] layout, ShotStrategy strategy) {
+        Board board = new Board(spec);
+        board.placeFleet(layout);
+        int shots = 0;
+        while (!board.allShipsSunk()) {
+            board.receiveShot(strategy.chooseTarget(board));
+            shots++;
+        }
+        return shots;
+    }
+
+    private synchronized void offer(Scored candidate) {
+        evaluated++;
+        int at = ranked.size();
+        while (at > 0 && ranked.get(at - 1).shots < candidate.shots) {
+            at--;
+        }
+        if (at < capacity) {
+            ranked.add(at, candidate);
+            if (ranked.size() > capacity) {
+                ranked.remove(ranked.size() - 1);
+            }
+        }
+    }
+}
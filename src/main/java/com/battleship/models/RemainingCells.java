@@ -0,0 +1,101 @@
+package com.battleship.models;
+
+import java.io.Serializable;
+import java.util.random.RandomGenerator;
+
+// Celdas aún sin disparar, con sorteo uniforme y borrado en O(1) sin crear objetos.
+// Es un Fisher-Yates disperso: un arreglo virtual de posiciones en el que la
+// posición i guarda la celda i salvo que se haya intercambiado; solo los
+// intercambios se guardan (posición -> celda y celda -> posición, en CellMap),
+// así que la memoria crece con los disparos y no con el tamaño del tablero.
+// Las celdas quitadas quedan detrás de size(), y restore() (deshacer) las
+// devuelve también en O(1), en cualquier orden.
+final class RemainingCells implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Valores guardados + 1: en CellMap un valor ausente se lee como 0
+    private CellMap cellAt;
+    private CellMap positionOf;
+    private int size;
+
+    RemainingCells(int cellCount) {
+        this.cellAt = new CellMap();
+        this.positionOf = new CellMap();
+        this.size = cellCount;
+    }
+
+    // Copia modificable que comparte las tablas hasta la siguiente escritura
+    RemainingCells copy() {
+        RemainingCells copy = new RemainingCells(size);
+        copy.cellAt = cellAt.copy();
+        copy.positionOf = positionOf.copy();
+        return copy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int cell) {
+        return positionOf(cell) < size;
+    }
+
+    // Celda en la posición i (0 <= i < size()); el orden cambia con cada borrado
+    int cellAt(int position) {
+        int stored = cellAt.get(position);
+        return stored == 0 ? position : stored - 1;
+    }
+
+    // Celda uniforme entre las que quedan, o -1 si no queda ninguna
+    int draw(RandomGenerator random) {
+        return size == 0 ? -1 : cellAt(random.nextInt(size));
+    }
+
+    // false si ya no estaba
+    boolean remove(int cell) {
+        int position = positionOf(cell);
+        if (position >= size) {
+            return false;
+        }
+        swap(position, --size);
+        return true;
+    }
+
+    // Devuelve una celda quitada; false si ya estaba
+    boolean restore(int cell) {
+        int position = positionOf(cell);
+        if (position < size) {
+            return false;
+        }
+        swap(position, size++);
+        return true;
+    }
+
+    long footprintBytes() {
+        return 24 + cellAt.footprintBytes() + positionOf.footprintBytes();
+    }
+
+    private int positionOf(int cell) {
+        int stored = positionOf.get(cell);
+        return stored == 0 ? cell : stored - 1;
+    }
+
+    private void swap(int i, int j) {
+        if (i == j) return;
+        int a = cellAt(i);
+        int b = cellAt(j);
+        place(i, b);
+        place(j, a);
+    }
+
+    // Las celdas que vuelven a su posición original dejan de ocupar memoria
+    private void place(int position, int cell) {
+        if (position == cell) {
+            cellAt.remove(position);
+            positionOf.remove(cell);
+        } else {
+            cellAt.put(position, cell + 1);
+            positionOf.put(cell, position + 1);
+        }
+    }
+}
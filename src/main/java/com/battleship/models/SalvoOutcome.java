@@ -0,0 +1,42 @@
+package com.battleship.models;
+
+import java.util.Collections;
+import java.util.List;
+
+// Resultado agregado de una andanada (modo salva): un ShotOutcome por disparo
+// y los totales que necesita la interfaz para pintarla y guardarla de una vez
+public final class SalvoOutcome {
+
+    private final List<ShotOutcome> shots;
+    private final int hitCount;
+    private final int sunkCount;
+    private final int validCount;
+    private final boolean fleetDestroyed;
+
+    SalvoOutcome(List<ShotOutcome> shots, boolean fleetDestroyed) {
+        this.shots = Collections.unmodifiableList(shots);
+        int hits = 0, sunk = 0, valid = 0;
+        for (ShotOutcome shot : shots) {
+            if (shot.isValid()) valid++;
+            if (shot.isHit()) hits++;
+            if (shot.isSunk()) sunk++;
+        }
+        this.hitCount = hits;
+        this.sunkCount = sunk;
+        this.validCount = valid;
+        this.fleetDestroyed = fleetDestroyed;
+    }
+
+    public List<ShotOutcome> getShots() { return shots; }
+    public int getHitCount() { return hitCount; }
+    public int getSunkCount() { return sunkCount; }
+    public int getValidCount() { return validCount; }
+    public int getMissCount() { return validCount - hitCount; }
+    // ¿Quedó hundida toda la flota tras la andanada?
+    public boolean isFleetDestroyed() { return fleetDestroyed; }
+
+    @Override
+    public String toString() {
+        return "Salvo " + validCount + " shots: " + hitCount + " hits, " + sunkCount + " sunk";
+    }
+}
@@ -8,7 +8,8 @@ public class Serializator {
     private static final String TEXT_FILE = "battleship_status.txt";
 
     // AHORA RECIBE 'int timeSeconds'
-    public static boolean saveGame(Board playerBoard, Board enemyBoard, String nickname, int timeSeconds) {
+    // Recibe instantáneas: se pueden escribir en otro hilo mientras la partida sigue
+    public static boolean saveGame(BoardSnapshot playerBoard, BoardSnapshot enemyBoard, String nickname, int timeSeconds) {
         try {
             // 1. SERIALIZACIÓN: Guardamos los objetos complejos
             try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SERIAL_FILE))) {
@@ -35,8 +36,8 @@ public class Serializator {
 
     public static GameDTO loadGame() {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SERIAL_FILE))) {
-            Board playerBoard = (Board) ois.readObject();
-            Board enemyBoard = (Board) ois.readObject();
+            Board playerBoard = Board.fromSnapshot((BoardSnapshot) ois.readObject());
+            Board enemyBoard = Board.fromSnapshot((BoardSnapshot) ois.readObject());
             int savedTime = ois.readInt(); // <--- LEEMOS EL TIEMPO
 
             String nickname = "Unknown";
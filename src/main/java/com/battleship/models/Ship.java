@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Ship implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     // Tipos de barcos y sus tamaños según enunciado
     public enum Type {
@@ -21,29 +21,58 @@ public class Ship implements Serializable {
 
     private Type type;
     private List<Coordinate> positions; // Estructura 1: ArrayList
-    private int health; // Cantidad de partes no dañadas
+    private int hitMask; // Bit i activo = segmento i (en orden de positions) dañado
 
     public Ship(Type type) {
         this.type = type;
         this.positions = new ArrayList<>();
-        this.health = type.getSize();
+        this.hitMask = 0;
     }
 
     public void addCoordinate(Coordinate coord) {
         positions.add(coord);
     }
 
-    public void hit() {
-        if (health > 0) {
-            health--;
+    // Marca un segmento como dañado; devuelve false si ya lo estaba
+    public boolean hit(int segment) {
+        int bit = 1 << segment;
+        if ((hitMask & bit) != 0) {
+            return false;
         }
+        hitMask |= bit;
+        return true;
+    }
+
+    // Deshace el daño de un segmento (al deshacer un disparo)
+    boolean repair(int segment) {
+        int bit = 1 << segment;
+        if ((hitMask & bit) == 0) {
+            return false;
+        }
+        hitMask &= ~bit;
+        return true;
+    }
+
+    void restoreHitMask(int mask) {
+        this.hitMask = mask;
+    }
+
+    // Segmento (0..size-1) que ocupa la celda dada
+    public int segmentOf(int row, int col) {
+        Coordinate first = positions.get(0);
+        return (row - first.getRow()) + (col - first.getCol());
+    }
+
+    public boolean isSegmentHit(int segment) {
+        return (hitMask & (1 << segment)) != 0;
     }
 
     public boolean isSunk() {
-        return health == 0;
+        return hitMask == (1 << type.getSize()) - 1;
     }
 
     public Type getType() { return type; }
     public List<Coordinate> getPositions() { return positions; }
-    public int getHealth() { return health; }
+    public int getHitMask() { return hitMask; }
+    public int getHealth() { return type.getSize() - Integer.bitCount(hitMask); }
 }
\ No newline at end of file
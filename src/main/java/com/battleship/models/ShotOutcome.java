@@ -0,0 +1,81 @@
+package com.battleship.models;
+
+import java.util.Collections;
+import java.util.List;
+
+// Resultado de un disparo: qué pasó, a qué barco y, si se hundió, sus celdas
+public final class ShotOutcome {
+
+    public enum Result { INVALID, MISS, HIT, SUNK }
+
+    // Resultados compartidos (flyweight) para las coordenadas de la tabla de
+    // Coordinate: agua y repetidos se crean al cargar la clase; los impactos sin
+    // hundir, la primera vez que salen. Son inmutables, así que la carrera al
+    // rellenar HITS es inocua. Solo hundir un barco crea un resultado nuevo.
+    private static final int SHARED_SHIP_IDS = 16;
+    private static final ShotOutcome[] INVALIDS = new ShotOutcome[Coordinate.CACHE_SIZE];
+    private static final ShotOutcome[] MISSES = new ShotOutcome[Coordinate.CACHE_SIZE];
+    private static final ShotOutcome[] HITS = new ShotOutcome[Coordinate.CACHE_SIZE * SHARED_SHIP_IDS];
+
+    static {
+        for (int slot = 0; slot < Coordinate.CACHE_SIZE; slot++) {
+            Coordinate c = Coordinate.of(slot / Coordinate.CACHE_DIM, slot % Coordinate.CACHE_DIM);
+            INVALIDS[slot] = new ShotOutcome(Result.INVALID, c, 0, Collections.emptyList());
+            MISSES[slot] = new ShotOutcome(Result.MISS, c, 0, Collections.emptyList());
+        }
+    }
+
+    private final Result result;
+    private final Coordinate target;
+    private final int shipId; // 0 si no había barco
+    private final List<Coordinate> sunkCells;
+
+    private ShotOutcome(Result result, Coordinate target, int shipId, List<Coordinate> sunkCells) {
+        this.result = result;
+        this.target = target;
+        this.shipId = shipId;
+        this.sunkCells = sunkCells;
+    }
+
+    static ShotOutcome invalid(Coordinate target) {
+        int slot = target.cacheSlot();
+        return slot >= 0 ? INVALIDS[slot] : new ShotOutcome(Result.INVALID, target, 0, Collections.emptyList());
+    }
+
+    static ShotOutcome miss(Coordinate target) {
+        int slot = target.cacheSlot();
+        return slot >= 0 ? MISSES[slot] : new ShotOutcome(Result.MISS, target, 0, Collections.emptyList());
+    }
+
+    static ShotOutcome hit(Coordinate target, int shipId) {
+        int slot = target.cacheSlot();
+        if (slot < 0 || shipId >= SHARED_SHIP_IDS) {
+            return new ShotOutcome(Result.HIT, target, shipId, Collections.emptyList());
+        }
+        int at = slot * SHARED_SHIP_IDS + shipId;
+        ShotOutcome outcome = HITS[at];
+        if (outcome == null) {
+            outcome = new ShotOutcome(Result.HIT, target, shipId, Collections.emptyList());
+            HITS[at] = outcome;
+        }
+        return outcome;
+    }
+
+    static ShotOutcome sunk(Coordinate target, int shipId, List<Coordinate> cells) {
+        return new ShotOutcome(Result.SUNK, target, shipId, Collections.unmodifiableList(cells));
+    }
+
+    public Result getResult() { return result; }
+    public Coordinate getTarget() { return target; }
+    public int getShipId() { return shipId; }
+    public List<Coordinate> getSunkCells() { return sunkCells; }
+
+    public boolean isValid() { return result != Result.INVALID; }
+    public boolean isHit() { return result == Result.HIT || result == Result.SUNK; }
+    public boolean isSunk() { return result == Result.SUNK; }
+
+    @Override
+    public String toString() {
+        return result + " " + target + (shipId != 0 ? " ship#" + shipId : "");
+    }
+}
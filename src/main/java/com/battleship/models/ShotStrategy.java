@@ -0,0 +1,40 @@
+package com.battleship.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Forma de elegir disparos de la máquina (MachineOpponent delega en ella).
+// Las implementaciones leen lo que necesitan del diario del tablero atacado,
+// así que una misma instancia sirve para muchas partidas: si cambia el tablero
+// o se deshacen jugadas se resincronizan solas, y reset() lo olvida todo.
+public interface ShotStrategy {
+
+    // Próxima casilla a la que disparar en 'target'. Queda reservada hasta el
+    // siguiente disparo, así varias llamadas seguidas (modo salva) no se repiten.
+    Coordinate chooseTarget(Board target);
+
+    // Varias casillas distintas de una vez (andanada del modo salva). Las
+    // estrategias que buscan con presupuesto de tiempo lo sobrescriben para
+    // gastarlo una sola vez por andanada.
+    default List<Coordinate> chooseTargets(Board target, int count) {
+        List<Coordinate> volley = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            volley.add(chooseTarget(target));
+        }
+        return volley;
+    }
+
+    // Versiones con plazo (valor de System.nanoTime()): la estrategia puede seguir
+    // afinando hasta entonces y devuelve lo mejor que tenga. Un plazo ya vencido
+    // pide jugar al instante. Las estrategias que no buscan deciden sin esperar.
+    default Coordinate chooseTarget(Board target, long deadline) {
+        return chooseTarget(target);
+    }
+
+    default List<Coordinate> chooseTargets(Board target, int count, long deadline) {
+        return chooseTargets(target, count);
+    }
+
+    // Olvida el estado acumulado (p. ej. al empezar otra partida)
+    void reset();
+}
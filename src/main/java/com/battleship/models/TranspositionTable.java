@@ -0,0 +1,90 @@
+package com.battleship.models;
+
+import java.util.Arrays;
+
+// Tabla de transposición acotada para el solucionador de finales: guarda el
+// número esperado de disparos de cada posición ya resuelta, por su clave Zobrist.
+// Cubetas de dos entradas: la primera conserva la posición que más trabajo costó
+// (solo la sustituye otra de igual o más trabajo, o cualquiera si es de una
+// búsqueda anterior); la segunda se sustituye siempre. Así las posiciones caras
+// sobreviven y la tabla nunca crece.
+final class TranspositionTable {
+
+    private final long[] keys;
+    private final double[] values;
+    private final int[] work;
+    private final int[] ages; // búsqueda en la que se guardó (0 = vacía)
+    private final int bucketMask;
+    private int age = 1;
+
+    private long hits;
+    private long evictions;
+
+    // 'entries' se redondea hacia abajo a una potencia de dos
+    TranspositionTable(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(1, entries / 2));
+        bucketMask = buckets - 1;
+        int size = 2 * buckets;
+        keys = new long[size];
+        values = new double[size];
+        work = new int[size];
+        ages = new int[size];
+    }
+
+    // Las entradas de búsquedas anteriores pasan a ser las primeras en desalojarse
+    void newSearch() {
+        age++;
+    }
+
+    void clear() {
+        Arrays.fill(ages, 0);
+        age = 1;
+    }
+
+    // Valor guardado, o NaN si no está
+    double probe(long key) {
+        int slot = slot(key);
+        for (int i = slot; i < slot + 2; i++) {
+            if (ages[i] != 0 && keys[i] == key) {
+                hits++;
+                return values[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    void store(long key, double value, int cost) {
+        int slot = slot(key);
+        int target;
+        if (ages[slot] != 0 && keys[slot] == key) {
+            target = slot;
+        } else if (ages[slot + 1] != 0 && keys[slot + 1] == key) {
+            target = slot + 1;
+        } else if (ages[slot] == 0 || ages[slot] != age || cost >= work[slot]) {
+            target = slot;
+            if (ages[slot] != 0) {
+                // La entrada preferida baja a la de siempre-sustituir
+                keys[slot + 1] = keys[slot];
+                values[slot + 1] = values[slot];
+                work[slot + 1] = work[slot];
+                ages[slot + 1] = ages[slot];
+                evictions++;
+            }
+        } else {
+            target = slot + 1;
+            if (ages[target] != 0) evictions++;
+        }
+        keys[target] = key;
+        values[target] = value;
+        work[target] = cost;
+        ages[target] = age;
+    }
+
+    long getHits() { return hits; }
+    long getEvictions() { return evictions; }
+    int capacity() { return keys.length; }
+
+    private int slot(long key) {
+        return 2 * (int) ((key ^ (key >>> 32)) & bucketMask);
+    }
+}
@@ -0,0 +1,41 @@
+package com.battleship.models;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// EntropyKernel con la Vector API (jdk.incubator.vector): las mismas cuentas,
+// tantas celdas por instrucción como quepan en un registro; el resto, en escalar.
+// Solo se carga si el módulo está presente (InformationGainStrategy.VECTOR_API).
+final class VectorEntropyKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private VectorEntropyKernel() {
+    }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static void entropy(float[][] cover, float[] invTotal, float[] count, int lengths,
+                        float[] open, float[] out, int n) {
+        int bound = SPECIES.loopBound(n);
+        for (int c = 0; c < bound; c += SPECIES.length()) {
+            FloatVector logQ = FloatVector.zero(SPECIES);
+            for (int k = 0; k < lengths; k++) {
+                FloatVector x = FloatVector.fromArray(SPECIES, cover[k], c)
+                        .mul(invTotal[k])
+                        .min(EntropyKernel.MAX_FRACTION);
+                logQ = x.neg().lanewise(VectorOperators.LOG1P).mul(count[k]).add(logQ);
+            }
+            logQ = logQ.max(EntropyKernel.MIN_LOG_Q).min(EntropyKernel.MAX_LOG_Q);
+            FloatVector q = logQ.lanewise(VectorOperators.EXP);
+            FloatVector p = q.neg().add(1f);
+            FloatVector h = p.mul(p.lanewise(VectorOperators.LOG)).add(q.mul(logQ)).neg();
+            FloatVector mask = FloatVector.fromArray(SPECIES, open, c);
+            h.fma(mask, mask.sub(1f)).intoArray(out, c);
+        }
+        EntropyKernel.entropy(cover, invTotal, count, lengths, open, out, bound, n);
+    }
+}
@@ -0,0 +1,221 @@
+package com.battleship.tools;
+
+import com.battleship.models.Board;
+import com.battleship.models.BoardSpec;
+import com.battleship.models.Coordinate;
+import com.battleship.models.DensityStrategy;
+import com.battleship.models.EndgameStrategy;
+import com.battleship.models.FleetPlacer;
+import com.battleship.models.HuntTargetStrategy;
+import com.battleship.models.InformationGainStrategy;
+import com.battleship.models.LayoutCorpus;
+import com.battleship.models.MonteCarloStrategy;
+import com.battleship.models.ShotStrategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+// Benchmark sin JavaFX del modelo de tablero.
+// Uso: java -cp target/classes com.battleship.tools.BoardBenchmark
+public class BoardBenchmark {
+
+    private static final int[] SIZES = {10, 100, 1000};
+
+    public static void main(String[] args) {
+        // Primera pasada solo para calentar el JIT
+        for (int size : SIZES) {
+            reportBoardScaling(size, false);
+        }
+        System.out.println("== Memory and shot latency per board size ==");
+        for (int size : SIZES) {
+            reportBoardScaling(size, true);
+        }
+
+        System.out.println("== Fleet layouts generated per second ==");
+        reportPlacementRate("classic 10x10", BoardSpec.classic());
+        reportPlacementRate("dense 6x6", BoardSpec.withStandardFleet(6, 6, 1));
+        reportPlacementRate("100x100", specFor(100));
+        reportPlacementRate("1000x1000", specFor(1000));
+
+        // Las mismas flotas leídas de un corpus ya generado (acceso aleatorio)
+        System.out.println("== Fleet layouts read from a corpus per second ==");
+        reportCorpusRate("classic 10x10", BoardSpec.classic(), 1_000_000);
+        reportCorpusRate("100x100", specFor(100), 10_000);
+
+        // Con la regla sin contacto FleetPlacer rechaza las que tocan un barco: el coste por layout debe ser similar
+        System.out.println("== Fleet layouts per second, no-touch rule ==");
+        reportPlacementRate("classic 10x10", BoardSpec.classic().withNoTouch(true));
+        reportPlacementRate("100x100", specFor(100).withNoTouch(true));
+        reportPlacementRate("1000x1000", specFor(1000).withNoTouch(true));
+
+        System.out.println("== AI decision latency ==");
+        reportDecisionLatency("density 10x10", new DensityStrategy(), BoardSpec.classic(), 200, Integer.MAX_VALUE);
+        reportDecisionLatency("density 100x100", new DensityStrategy(), specFor(100), 3, 5_000);
+        reportDecisionLatency("density 1000x1000", new DensityStrategy(), specFor(1000), 1, 5_000);
+        reportDecisionLatency("hunt 10x10", new HuntTargetStrategy(new Random(3)), BoardSpec.classic(), 200, Integer.MAX_VALUE);
+        reportDecisionLatency("density no-touch", new DensityStrategy(), BoardSpec.classic().withNoTouch(true), 200, Integer.MAX_VALUE);
+        reportDecisionLatency("endgame no-touch", new EndgameStrategy(new DensityStrategy()), BoardSpec.classic().withNoTouch(true), 200, Integer.MAX_VALUE);
+        // Con 10 ms por disparo en vez del tiempo de pensar completo
+        reportDecisionLatency("monte carlo 10x10",
+                new MonteCarloStrategy(ForkJoinPool.commonPool(), 10, MonteCarloStrategy.DEFAULT_MAX_SAMPLES, new SplittableRandom(5)),
+                BoardSpec.classic(), 10, Integer.MAX_VALUE);
+
+        // La misma estrategia con y sin Vector API (hace falta --add-modules jdk.incubator.vector)
+        System.out.println("== Information gain, scalar vs Vector API ==");
+        reportDecisionLatency("info gain 10x10", new InformationGainStrategy(false), BoardSpec.classic(), 200, Integer.MAX_VALUE);
+        reportDecisionLatency("scalar 100x100", new InformationGainStrategy(false), specFor(100), 3, 5_000);
+        if (InformationGainStrategy.isVectorApiAvailable()) {
+            reportDecisionLatency("vector 100x100", new InformationGainStrategy(true), specFor(100), 3, 5_000);
+        } else {
+            System.out.println("vector 100x100     skipped: jdk.incubator.vector not available");
+        }
+
+        System.out.println("== Monte Carlo samples per second by worker count ==");
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int workers = 1; workers <= cores; workers *= 2) {
+            reportSamplingRate(workers);
+        }
+        if (Integer.bitCount(cores) != 1) {
+            reportSamplingRate(cores);
+        }
+    }
+
+    // Una decisión de medio segundo a mitad de partida, con su propio pool de 'workers' hilos
+    private static void reportSamplingRate(int workers) {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            MonteCarloStrategy strategy = new MonteCarloStrategy(pool, 500, Integer.MAX_VALUE, new SplittableRandom(9));
+            Board board = new Board(BoardSpec.classic());
+            board.placeShipsRandomly(new Random(13));
+            Random random = new Random(17);
+            for (int i = 0; i < 20; i++) {
+                board.receiveShot(Coordinate.of(random.nextInt(10), random.nextInt(10)));
+            }
+            strategy.chooseTarget(board);
+            double seconds = strategy.getLastSearchNanos() / 1e9;
+            System.out.printf("%2d workers %,12.0f samples/s %,12.0f consistent/s%n", workers,
+                    strategy.getLastSampleCount() / seconds, strategy.getLastAcceptedCount() / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Partidas de la IA contra tableros aleatorios (cortadas en maxShots en tableros grandes)
+    private static void reportDecisionLatency(String label, ShotStrategy strategy, BoardSpec spec, int games, int maxShots) {
+        Random random = new Random(11);
+        long shots = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        for (int g = 0; g < games; g++) {
+            Board board = new Board(spec);
+            board.placeShipsRandomly(random);
+            for (int n = 0; n < maxShots && !board.allShipsSunk(); n++) {
+                long start = System.nanoTime();
+                Coordinate target = strategy.chooseTarget(board);
+                long elapsed = System.nanoTime() - start;
+                totalNanos += elapsed;
+                maxNanos = Math.max(maxNanos, elapsed);
+                board.receiveShot(target);
+                shots++;
+            }
+        }
+        System.out.printf("%-18s %,10d ns/decision avg, %,12d ns max, %.1f shots/game%n",
+                label, totalNanos / Math.max(1, shots), maxNanos, shots / (double) games);
+    }
+
+    private static void reportPlacementRate(String label, BoardSpec spec) {
+        FleetPlacer placer = FleetPlacer.forSpec(spec);
+        Random random = new Random(7);
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        long start = System.nanoTime();
+        int layouts = 0;
+        while (System.nanoTime() < deadline) {
+            int[] layout = placer.generate(spec.getFleet(), random);
+            placer.release(layout, spec.getFleet());
+            layouts++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-14s %,12.0f layouts/s%n", label, layouts / seconds);
+    }
+
+    private static void reportCorpusRate(String label, BoardSpec spec, int layouts) {
+        try {
+            Path file = Files.createTempFile("battleship-corpus", ".bin");
+            try {
+                long start = System.nanoTime();
+                LayoutCorpus.write(file, spec, layouts, new SplittableRandom(7));
+                double writeSeconds = (System.nanoTime() - start) / 1e9;
+                LayoutCorpus corpus = LayoutCorpus.open(file);
+                int[] layout = new int[spec.getFleet().size()];
+                Random random = new Random(7);
+                long deadline = System.nanoTime() + 1_000_000_000L;
+                start = System.nanoTime();
+                long reads = 0;
+                while (System.nanoTime() < deadline) {
+                    corpus.layout(random.nextInt(layouts), layout);
+                    reads++;
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-14s %,12.0f layouts/s (written at %,.0f/s, %,d bytes each)%n", label,
+                        reads / seconds, layouts / writeSeconds, corpus.getLayoutBytes());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Una copia de la flota estándar por cada 1000 celdas (mínimo una)
+    private static BoardSpec specFor(int size) {
+        int copies = Math.max(1, size * size / 1000);
+        return BoardSpec.withStandardFleet(size, size, copies);
+    }
+
+    private static void reportBoardScaling(int size, boolean print) {
+        BoardSpec spec = specFor(size);
+        Random random = new Random(42);
+
+        // Memoria: estimación estructural y medida real sobre varios tableros vivos
+        int boardCount = size <= 10 ? 2000 : size <= 100 ? 200 : 5;
+        long before = usedHeap();
+        Board[] boards = new Board[boardCount];
+        for (int i = 0; i < boardCount; i++) {
+            boards[i] = new Board(spec);
+            boards[i].placeShipsRandomly(random);
+        }
+        long measured = (usedHeap() - before) / boardCount;
+        long estimated = boards[0].footprintBytes();
+
+        // Latencia: disparos sobre celdas aleatorias (las repetidas también cuentan)
+        Board board = boards[0];
+        int shotCount = Math.min(spec.getCellCount(), 200_000);
+        Coordinate[] targets = new Coordinate[shotCount];
+        for (int i = 0; i < shotCount; i++) {
+            targets[i] = Coordinate.of(random.nextInt(size), random.nextInt(size));
+        }
+        long start = System.nanoTime();
+        int hits = 0;
+        for (Coordinate target : targets) {
+            if (board.receiveShot(target).isHit()) hits++;
+        }
+        double nsPerShot = (System.nanoTime() - start) / (double) shotCount;
+
+        if (!print) return;
+        System.out.printf("%4dx%-4d ships=%-6d mem/board: ~%,d B measured, %,d B estimated | %,.1f ns/shot (%d hits, %,d B after shots)%n",
+                size, size, spec.getFleet().size(), measured, estimated, nsPerShot, hits, board.footprintBytes());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,75 @@
+package com.battleship.tools;
+
+import com.battleship.models.BoardSpec;
+import com.battleship.models.GameSeed;
+import com.battleship.models.LayoutCorpus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Genera un corpus de flotas al azar (LayoutCorpus) para muestreos, pruebas y benchmarks.
+// Uso: java -cp target/classes com.battleship.tools.LayoutCorpusBuilder flotas archivo
+//          [--rules classic|notouch] [--size n] [--seed s]
+// --size n usa un tablero n x n con la flota estándar de BoardBenchmark. Con la
+// misma semilla sale siempre el mismo archivo.
+public class LayoutCorpusBuilder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage("Missing arguments");
+        }
+        long count = 0;
+        Path output = Paths.get(args[1]);
+        boolean noTouch = false;
+        int size = 10;
+        long seed = GameSeed.random().getSeed();
+        try {
+            count = Long.parseLong(args[0]);
+            for (int i = 2; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--rules":
+                        if (!value.equals("classic") && !value.equals("notouch")) {
+                            throw new IllegalArgumentException("Unknown rules: " + value);
+                        }
+                        noTouch = value.equals("notouch");
+                        break;
+                    case "--size":
+                        size = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage()); // NumberFormatException incluida
+        }
+        if (count <= 0 || size <= 0) {
+            usage("count and size must be positive");
+        }
+
+        // Misma flota que BoardBenchmark: una copia de la estándar por cada 1000 celdas
+        BoardSpec spec = size == 10 ? BoardSpec.classic()
+                : BoardSpec.withStandardFleet(size, size, Math.max(1, size * size / 1000));
+        spec = spec.withNoTouch(noTouch);
+
+        long start = System.nanoTime();
+        LayoutCorpus.write(output, spec, count, new GameSeed(seed).split());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %,d layouts of %s to %s (%,d bytes) in %.1f s (%,.0f layouts/s), seed %d%n",
+                count, spec, output, Files.size(output), seconds, count / seconds, seed);
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: LayoutCorpusBuilder count file [--rules classic|notouch] [--size n] [--seed s]");
+        System.exit(2);
+    }
+}
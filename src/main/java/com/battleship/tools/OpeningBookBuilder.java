@@ -0,0 +1,111 @@
+package com.battleship.tools;
+
+import com.battleship.models.BoardSpec;
+import com.battleship.models.FleetPlacer;
+import com.battleship.models.GameSeed;
+import com.battleship.models.OpeningBook;
+import com.battleship.models.Ship;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Genera el libro de aperturas (recurso binario) para las reglas que ofrece el juego.
+// Uso: java -cp target/classes com.battleship.tools.OpeningBookBuilder [archivo]
+// Para cada configuración simula muchas flotas al azar y elige, uno a uno, el
+// disparo con más probabilidad de tocar suponiendo que los anteriores fueron agua.
+// La semilla es fija: el mismo código genera siempre el mismo libro.
+public class OpeningBookBuilder {
+
+    private static final int SHOTS = 16;
+    private static final int SAMPLES = 100_000;
+    private static final String DEFAULT_OUTPUT = "src/main/resources/com/battleship/opening-book.bin";
+
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        List<BoardSpec> specs = List.of(BoardSpec.classic(), BoardSpec.classic().withNoTouch(true));
+
+        List<OpeningBook.Line> book = new ArrayList<>();
+        for (BoardSpec spec : specs) {
+            book.add(buildLine(spec, new GameSeed(20240601L).split()));
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            OpeningBook.write(out, book);
+        }
+        System.out.println("Wrote " + book.size() + " lines to " + output + " (" + Files.size(output) + " bytes)");
+    }
+
+    private static OpeningBook.Line buildLine(BoardSpec spec, RandomGenerator random) {
+        FleetPlacer placer = FleetPlacer.forSpec(spec);
+        List<Ship.Type> fleet = spec.getFleet();
+        int cols = spec.getCols();
+        boolean[] shot = new boolean[spec.getCellCount()];
+        int[] line = new int[SHOTS];
+        long[] firstCounts = null;
+
+        for (int n = 0; n < SHOTS; n++) {
+            long[] counts = occupancy(placer, fleet, cols, spec.getCellCount(), random);
+            if (firstCounts == null) {
+                firstCounts = counts;
+            }
+            int best = -1;
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (!shot[cell] && (best < 0 || counts[cell] > counts[best])) best = cell;
+            }
+            line[n] = best;
+            shot[best] = true;
+            placer.block(best); // los siguientes suponen que fue agua
+        }
+
+        // Paridad: con barcos de al menos m casillas basta una de cada m diagonales
+        int modulus = Integer.MAX_VALUE;
+        for (Ship.Type type : fleet) {
+            modulus = Math.min(modulus, type.getSize());
+        }
+        modulus = Math.max(1, Math.min(modulus, Byte.MAX_VALUE));
+        int offset = 0;
+        if (modulus > 1) {
+            long[] byOffset = new long[modulus];
+            for (int cell = 0; cell < firstCounts.length; cell++) {
+                byOffset[(cell / cols + cell % cols) % modulus] += firstCounts[cell];
+            }
+            for (int o = 1; o < modulus; o++) {
+                if (byOffset[o] > byOffset[offset]) offset = o;
+            }
+        }
+        System.out.println(spec + ": first shots " + describe(line, cols) + ", parity " + offset + " mod " + modulus);
+        return new OpeningBook.Line(spec, line, modulus, offset);
+    }
+
+    // Veces que cada celda sale ocupada en SAMPLES flotas al azar
+    private static long[] occupancy(FleetPlacer placer, List<Ship.Type> fleet, int cols, int cells, RandomGenerator random) {
+        long[] counts = new long[cells];
+        for (int s = 0; s < SAMPLES; s++) {
+            int[] layout = placer.generate(fleet, random);
+            for (int i = 0; i < layout.length; i++) {
+                int cell = FleetPlacer.startIndex(layout[i]);
+                int step = FleetPlacer.isHorizontal(layout[i]) ? 1 : cols;
+                for (int j = 0; j < fleet.get(i).getSize(); j++, cell += step) {
+                    counts[cell]++;
+                }
+            }
+            placer.release(layout, fleet);
+        }
+        return counts;
+    }
+
+    private static String describe(int[] line, int cols) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(4, line.length); i++) {
+            text.append(i == 0 ? "" : " ").append('(').append(line[i] / cols).append(',').append(line[i] % cols).append(')');
+        }
+        return text.append(line.length > 4 ? " ..." : "").toString();
+    }
+}
@@ -0,0 +1,465 @@
+package com.battleship.tools;
+
+import com.battleship.models.Board;
+import com.battleship.models.BoardSpec;
+import com.battleship.models.Coordinate;
+import com.battleship.models.DensityStrategy;
+import com.battleship.models.EndgameStrategy;
+import com.battleship.models.GameEngine;
+import com.battleship.models.GameSeed;
+import com.battleship.models.HuntTargetStrategy;
+import com.battleship.models.InformationGainStrategy;
+import com.battleship.models.MonteCarloStrategy;
+import com.battleship.models.OpeningBookStrategy;
+import com.battleship.models.ShotStrategy;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+// Torneo sin interfaz entre dos estrategias, en paralelo con todos los núcleos.
+// Uso: java -cp target/classes com.battleship.tools.Tournament A B partidas
+//          [--rules classic|notouch|salvo] [--threads n] [--seed s] [--out resultados.csv]
+//      java -cp target/classes com.battleship.tools.Tournament A B --replay semilla [--rules r]
+// Estrategias: random, hunt, density, infogain, endgame, book, montecarlo.
+// Cada partida va a GameEngine en modo síncrono; A empieza en las partidas
+// pares y B en las impares. Las partidas se escriben en el CSV según terminan
+// y las estadísticas son histogramas de tamaño fijo: la memoria no crece con
+// el número de partidas.
+// Cada partida tiene su semilla (GameSeed.forGame(s, número), columna seed del
+// CSV) y estrategias nuevas sembradas de ella: --replay la vuelve a jugar igual,
+// con A como primero, sin depender del hilo ni del orden en que se jugó.
+public class Tournament {
+
+    private static final String[] STRATEGIES = {"random", "hunt", "density", "infogain", "endgame", "book", "montecarlo"};
+    // Líneas del CSV que acumula cada hilo antes de escribirlas
+    private static final int FLUSH_LINES = 1024;
+    // Monte Carlo corta por muestras y no por reloj, con un reparto fijo entre
+    // tareas, para que la partida se repita en cualquier máquina
+    private static final int MONTE_CARLO_SAMPLES = 5_000;
+    private static final long MONTE_CARLO_MAX_MILLIS = 60_000;
+    private static final ForkJoinPool MONTE_CARLO_POOL = new ForkJoinPool(2);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            usage("Missing arguments");
+        }
+        String[] names = {args[0], args[1]};
+        long games = 0;
+        BoardSpec spec = BoardSpec.classic();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = GameSeed.random().getSeed();
+        Long replay = null;
+        Path out = null;
+        try {
+            for (String name : names) {
+                newStrategy(name, GameSeed.unseeded()); // falla aquí si el nombre no existe
+            }
+            int first = 2;
+            if (!args[2].startsWith("--")) {
+                games = Long.parseLong(args[2]);
+                first = 3;
+            }
+            for (int i = first; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--rules":
+                        spec = rules(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--replay":
+                        replay = Long.parseLong(value);
+                        break;
+                    case "--out":
+                        out = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage()); // NumberFormatException incluida
+        }
+        if (replay != null) {
+            replay(names, spec, new GameSeed(replay));
+            return;
+        }
+        if (games <= 0 || threads <= 0) {
+            usage("games and threads must be positive");
+        }
+
+        try (Writer csv = out == null ? null : Files.newBufferedWriter(out)) {
+            if (csv != null) {
+                csv.write("game,seed,first,second,winner,winner_shots,loser_shots,nanos\n");
+            }
+            run(names, spec, games, threads, seed, csv);
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: Tournament A B games [--rules classic|notouch|salvo] [--threads n] [--seed s] [--out file.csv]");
+        System.err.println("       Tournament A B --replay gameSeed [--rules classic|notouch|salvo]");
+        System.err.println("Strategies: " + String.join(", ", STRATEGIES));
+        System.exit(2);
+    }
+
+    private static BoardSpec rules(String name) {
+        switch (name) {
+            case "classic": return BoardSpec.classic();
+            case "notouch": return BoardSpec.classic().withNoTouch(true);
+            case "salvo": return BoardSpec.classic().withSalvo(true);
+            default: throw new IllegalArgumentException("Unknown rules: " + name);
+        }
+    }
+
+    // Estrategias sin tiempo de pensar: Monte Carlo con un presupuesto pequeño por disparo.
+    // Todo su azar sale de 'random'.
+    static ShotStrategy newStrategy(String name, SplittableGenerator random) {
+        switch (name) {
+            case "random": return new RandomStrategy(random);
+            case "hunt": return new HuntTargetStrategy(random);
+            case "density": return new DensityStrategy();
+            case "infogain": return new InformationGainStrategy();
+            case "endgame": return new EndgameStrategy(new DensityStrategy());
+            case "book": return new OpeningBookStrategy(new EndgameStrategy(new DensityStrategy()), random);
+            case "montecarlo": return new MonteCarloStrategy(MONTE_CARLO_POOL, MONTE_CARLO_MAX_MILLIS, MONTE_CARLO_SAMPLES, random);
+            default: throw new IllegalArgumentException("Unknown strategy: " + name + " (" + String.join(", ", STRATEGIES) + ")");
+        }
+    }
+
+    private static void run(String[] names, BoardSpec spec, long games, int threads, long seed, Writer csv)
+            throws InterruptedException {
+        AtomicLong next = new AtomicLong();
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(names, spec, games, next, seed, csv);
+            running[i] = new Thread(workers[i], "tournament-" + i);
+            running[i].start();
+        }
+        // Progreso cada pocos segundos mientras juegan
+        for (Thread thread : running) {
+            while (thread.isAlive()) {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+                if (thread.isAlive()) {
+                    long done = Math.min(next.get(), games);
+                    System.out.printf("... %,d / %,d games (%.0f%%)%n", done, games, 100.0 * done / games);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Stats[] total = {new Stats(spec), new Stats(spec)};
+        for (Worker worker : workers) {
+            if (worker.error != null) {
+                throw new IllegalStateException("Worker failed", worker.error);
+            }
+            total[0].merge(worker.stats[0]);
+            total[1].merge(worker.stats[1]);
+        }
+        System.out.printf("%s vs %s, %s: %,d games in %.1f s on %d threads (%,.0f games/s), seed %d%n",
+                names[0], names[1], spec, games, seconds, threads, games / seconds, seed);
+        System.out.printf("%-11s %10s %6s | %-37s | %s%n", "strategy", "wins", "win%",
+                "shots to win: mean sd min p10 p50 p90 max", "decision p50 / p99 (us)");
+        for (int s = 0; s < 2; s++) {
+            total[s].print(names[s], games);
+        }
+    }
+
+    // --- Partidas ---
+
+    // Una partida entera: 'first' dispara primero. Semilla repartida siempre en el
+    // mismo orden: estrategia de first, la de second y luego las flotas (start()).
+    // Devuelve el motor ya terminado.
+    private static GameEngine playGame(String first, String second, BoardSpec spec, GameSeed seed,
+                               Stats firstStats, Stats secondStats) {
+        TimedStrategy player = new TimedStrategy(newStrategy(first, seed.split()), firstStats);
+        TimedStrategy enemy = new TimedStrategy(newStrategy(second, seed.split()), secondStats);
+        GameEngine engine = GameEngine.headless(spec, enemy, seed);
+        engine.start();
+        Board target = engine.getEnemyBoard();
+        while (!engine.isOver()) {
+            if (spec.isSalvo()) {
+                engine.playerSalvo(player.chooseTargets(target, engine.playerSalvoSize()));
+            } else {
+                engine.playerShot(player.chooseTarget(target));
+            }
+        }
+        return engine;
+    }
+
+    // Vuelve a jugar una partida (A primero); si falló, vuelve a fallar igual
+    private static void replay(String[] names, BoardSpec spec, GameSeed seed) {
+        GameEngine engine = playGame(names[0], names[1], spec, seed, new Stats(spec), new Stats(spec));
+        boolean firstWon = engine.getPhase() == GameEngine.Phase.PLAYER_WON;
+        System.out.printf("%s vs %s, %s, seed %s: %s wins, %d to %d shots%n", names[0], names[1], spec, seed,
+                names[firstWon ? 0 : 1], shotsAt(firstWon ? engine.getEnemyBoard() : engine.getPlayerBoard()),
+                shotsAt(firstWon ? engine.getPlayerBoard() : engine.getEnemyBoard()));
+    }
+
+    private static int shotsAt(Board board) {
+        return board.getSpec().getCellCount() - board.unshotCount();
+    }
+
+    private static final class Worker implements Runnable {
+        private final String[] names;
+        private final BoardSpec spec;
+        private final long games;
+        private final AtomicLong next;
+        private final long seed;
+        private final Writer csv;
+        private final Stats[] stats;
+        private final StringBuilder pending = new StringBuilder();
+        private int pendingLines;
+        private volatile Throwable error;
+
+        Worker(String[] names, BoardSpec spec, long games, AtomicLong next, long seed, Writer csv) {
+            this.names = names;
+            this.spec = spec;
+            this.games = games;
+            this.next = next;
+            this.seed = seed;
+            this.csv = csv;
+            this.stats = new Stats[]{new Stats(spec), new Stats(spec)};
+        }
+
+        @Override
+        public void run() {
+            long game = 0;
+            try {
+                for (game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+                    play(game);
+                }
+                flush();
+            } catch (Throwable e) {
+                int first = (int) (game & 1);
+                error = new IllegalStateException("Game " + game + " failed; replay with: " + names[first] + " "
+                        + names[1 - first] + " --replay " + GameSeed.forGame(seed, game), e);
+                next.set(games); // los demás hilos también paran
+            }
+        }
+
+        private void play(long game) throws IOException {
+            long start = System.nanoTime();
+            int first = (int) (game & 1);
+            GameSeed gameSeed = GameSeed.forGame(seed, game);
+            GameEngine engine = playGame(names[first], names[1 - first], spec, gameSeed, stats[first], stats[1 - first]);
+            boolean playerWon = engine.getPhase() == GameEngine.Phase.PLAYER_WON;
+            int winner = playerWon ? first : 1 - first;
+            int winnerShots = shotsAt(playerWon ? engine.getEnemyBoard() : engine.getPlayerBoard());
+            int loserShots = shotsAt(playerWon ? engine.getPlayerBoard() : engine.getEnemyBoard());
+            stats[winner].recordWin(winnerShots);
+            if (csv != null) {
+                pending.append(game).append(',').append(gameSeed).append(',').append(names[first]).append(',')
+                        .append(names[1 - first]).append(',').append(names[winner]).append(',').append(winnerShots)
+                        .append(',').append(loserShots).append(',').append(System.nanoTime() - start).append('\n');
+                if (++pendingLines >= FLUSH_LINES) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            if (csv == null || pendingLines == 0) return;
+            synchronized (csv) {
+                csv.append(pending);
+            }
+            pending.setLength(0);
+            pendingLines = 0;
+        }
+    }
+
+    // Mide cada decisión. Ignora el plazo de MachineOpponent (en un torneo es
+    // "ya"): cada estrategia decide con su propio presupuesto.
+    private static final class TimedStrategy implements ShotStrategy {
+        private final ShotStrategy strategy;
+        private final Stats stats;
+
+        TimedStrategy(ShotStrategy strategy, Stats stats) {
+            this.strategy = strategy;
+            this.stats = stats;
+        }
+
+        @Override
+        public Coordinate chooseTarget(Board target) {
+            long start = System.nanoTime();
+            Coordinate choice = strategy.chooseTarget(target);
+            stats.latency.record(System.nanoTime() - start);
+            return choice;
+        }
+
+        @Override
+        public List<Coordinate> chooseTargets(Board target, int count) {
+            long start = System.nanoTime();
+            List<Coordinate> volley = strategy.chooseTargets(target, count);
+            stats.latency.record(System.nanoTime() - start);
+            return volley;
+        }
+
+        @Override
+        public Coordinate chooseTarget(Board target, long deadline) {
+            return chooseTarget(target);
+        }
+
+        @Override
+        public List<Coordinate> chooseTargets(Board target, int count, long deadline) {
+            return chooseTargets(target, count);
+        }
+
+        @Override
+        public void reset() {
+            strategy.reset();
+        }
+    }
+
+    // Disparos al azar a casillas sin disparar: la referencia más floja
+    private static final class RandomStrategy implements ShotStrategy {
+        private final RandomGenerator random;
+
+        RandomStrategy(RandomGenerator random) {
+            this.random = random;
+        }
+
+        @Override
+        public Coordinate chooseTarget(Board target) {
+            return toCoordinate(target, target.randomUnshotCell(random));
+        }
+
+        @Override
+        public List<Coordinate> chooseTargets(Board target, int count) {
+            Set<Integer> cells = new LinkedHashSet<>();
+            while (cells.size() < count) {
+                cells.add(target.randomUnshotCell(random));
+            }
+            List<Coordinate> volley = new ArrayList<>(count);
+            for (int cell : cells) {
+                volley.add(toCoordinate(target, cell));
+            }
+            return volley;
+        }
+
+        private static Coordinate toCoordinate(Board target, int cell) {
+            int cols = target.getSpec().getCols();
+            return Coordinate.of(cell / cols, cell % cols);
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+
+    // --- Estadísticas de tamaño fijo ---
+
+    private static final class Stats {
+        final long[] shotsToWin; // partidas ganadas por número de disparos
+        final Histogram latency = new Histogram();
+        long wins;
+
+        Stats(BoardSpec spec) {
+            this.shotsToWin = new long[spec.getCellCount() + 1];
+        }
+
+        void recordWin(int shots) {
+            wins++;
+            shotsToWin[shots]++;
+        }
+
+        void merge(Stats other) {
+            wins += other.wins;
+            for (int i = 0; i < shotsToWin.length; i++) {
+                shotsToWin[i] += other.shotsToWin[i];
+            }
+            latency.merge(other.latency);
+        }
+
+        void print(String name, long games) {
+            double mean = 0;
+            double square = 0;
+            for (int s = 0; s < shotsToWin.length; s++) {
+                mean += (double) s * shotsToWin[s];
+                square += (double) s * s * shotsToWin[s];
+            }
+            mean = wins == 0 ? 0 : mean / wins;
+            double sd = wins == 0 ? 0 : Math.sqrt(Math.max(0, square / wins - mean * mean));
+            System.out.printf("%-11s %,10d %5.1f%% | %6.2f %5.2f %3d %3d %3d %3d %3d         | %,.1f / %,.1f%n",
+                    name, wins, 100.0 * wins / games, mean, sd, shotPercentile(0), shotPercentile(0.1),
+                    shotPercentile(0.5), shotPercentile(0.9), shotPercentile(1),
+                    latency.percentile(0.5) / 1e3, latency.percentile(0.99) / 1e3);
+        }
+
+        private int shotPercentile(double q) {
+            if (wins == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * wins));
+            long seen = 0;
+            for (int s = 0; s < shotsToWin.length; s++) {
+                seen += shotsToWin[s];
+                if (seen >= rank) return s;
+            }
+            return shotsToWin.length - 1;
+        }
+    }
+
+    // Histograma logarítmico de nanosegundos: 32 cubos por potencia de 2 (error < 3%)
+    private static final class Histogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB = 1 << SUB_BITS;
+        private final long[] counts = new long[(64 - SUB_BITS) * SUB];
+        private long total;
+
+        void record(long nanos) {
+            counts[bucket(Math.max(0, nanos))]++;
+            total++;
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+        }
+
+        // Límite inferior del cubo del percentil q
+        long percentile(double q) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank) return lowerBound(b);
+            }
+            return lowerBound(counts.length - 1);
+        }
+
+        private static int bucket(long v) {
+            if (v < SUB) return (int) v;
+            int exponent = 63 - Long.numberOfLeadingZeros(v);
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) | (int) ((v >>> (exponent - SUB_BITS)) & (SUB - 1));
+        }
+
+        private static long lowerBound(int b) {
+            if (b < SUB) return b;
+            int exponent = (b >>> SUB_BITS) + SUB_BITS - 1;
+            return ((long) SUB | (b & (SUB - 1))) << (exponent - SUB_BITS);
+        }
+    }
+}
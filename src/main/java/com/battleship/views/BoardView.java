@@ -11,8 +11,12 @@ import java.util.List;
 public class BoardView extends VBox {
     private GridPane grid;
     private CellView[][] cells; // Matriz visual para acceso rápido
+    private final int rows;
+    private final int cols;
 
-    public BoardView(String title) {
+    public BoardView(String title, int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
         this.setAlignment(Pos.CENTER);
         this.setSpacing(5);
 
@@ -23,7 +27,7 @@ public class BoardView extends VBox {
 
         grid = new GridPane();
         grid.setAlignment(Pos.CENTER);
-        cells = new CellView[10][10];
+        cells = new CellView[rows][cols];
 
         initializeBoard();
         this.getChildren().add(grid);
@@ -31,16 +35,15 @@ public class BoardView extends VBox {
 
     private void initializeBoard() {
         // Añadir cabeceras de columnas (A, B, C...)
-        String[] cols = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
-        for (int i = 0; i < 10; i++) {
-            Label label = new Label(cols[i]);
+        for (int i = 0; i < cols; i++) {
+            Label label = new Label(columnName(i));
             label.setMinWidth(30);
             label.setAlignment(Pos.CENTER);
             grid.add(label, i + 1, 0); // Columna i+1, Fila 0
         }
 
         // Añadir cabeceras de filas (1, 2, 3...)
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < rows; i++) {
             Label label = new Label(String.valueOf(i + 1));
             label.setMinHeight(30);
             label.setMinWidth(20);
@@ -49,8 +52,8 @@ public class BoardView extends VBox {
         }
 
         // Crear las celdas
-        for (int row = 0; row < 10; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
                 CellView cell = new CellView(row, col);
                 cells[row][col] = cell;
                 grid.add(cell, col + 1, row + 1);
@@ -59,12 +62,24 @@ public class BoardView extends VBox {
     }
 
     public CellView getCell(int row, int col) {
-        if (row >= 0 && row < 10 && col >= 0 && col < 10) {
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
             return cells[row][col];
         }
         return null;
     }
 
+    // A..Z, AA, AB... como en una hoja de cálculo
+    private static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
     public GridPane getGridPane() {
         return grid;
     }
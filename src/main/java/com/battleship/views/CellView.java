@@ -86,6 +86,15 @@ public class CellView extends StackPane {
         background.setEffect(metalEffect);
     }
 
+    // Modo salva: resalta una casilla elegida para la próxima andanada
+    public void markAsTargeted(boolean targeted) {
+        if (targeted) {
+            this.setStyle("-fx-background-color: rgba(241, 196, 15, 0.45); -fx-border-color: #f1c40f;");
+        } else {
+            this.setStyle("-fx-background-color: rgba(30, 144, 255, 0.2); -fx-border-color: rgba(255,255,255,0.1);");
+        }
+    }
+
     // Nuevo método para ocultar el barco (revertir visualmente a agua)
     public void hideShip() {
         background.setFill(Color.TRANSPARENT); // Vuelve al color base (agua)
@@ -2,6 +2,8 @@ module com.battleship {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.desktop; // A veces necesario para ciertas utilidades de AWT si se usan
+    // Opcional: la IA de información lo usa si se arranca con --add-modules jdk.incubator.vector
+    requires static jdk.incubator.vector;
 
     opens com.battleship to javafx.fxml;
     exports com.battleship;
@@ -0,0 +1,160 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Deshacer, rehacer y seek() (desde checkpoints) contra el tablero jugado de nuevo desde cero
+class BoardJournalTest {
+
+    // Bastantes disparos para que el diario guarde varios checkpoints
+    private static final BoardSpec SPEC = BoardSpec.withStandardFleet(24, 24, 2);
+
+    @Test
+    void seekMatchesReplayingFromScratch() {
+        Board board = new Board(SPEC);
+        board.placeShipsRandomly(new SplittableRandom(8));
+        int placed = board.getMoveCount();
+        List<Coordinate> shots = shootEverything(board, new SplittableRandom(9));
+        int last = board.getMoveCount();
+        assertTrue(board.getJournal().checkpointAtOrBefore(last) > 0, "expected several checkpoints");
+
+        List<String> expected = new ArrayList<>();
+        for (int move = placed; move <= last; move++) {
+            expected.add(state(replay(board, shots.subList(0, move - placed))));
+        }
+        SplittableRandom random = new SplittableRandom(10);
+        for (int i = 0; i < 300; i++) {
+            int move = placed + random.nextInt(last - placed + 1);
+            board.seek(move);
+            assertEquals(move, board.getMoveCount());
+            assertEquals(expected.get(move - placed), state(board), "after seek(" + move + ")");
+        }
+    }
+
+    @Test
+    void undoAndRedoRestoreEveryStep() {
+        Board board = new Board(SPEC);
+        board.placeShipsRandomly(new SplittableRandom(3));
+        int placed = board.getMoveCount();
+        List<Coordinate> shots = shootEverything(board, new SplittableRandom(4));
+        String end = state(board);
+
+        while (board.getMoveCount() > placed) {
+            assertTrue(board.undo());
+        }
+        assertEquals(state(replay(board, List.of())), state(board));
+        while (board.redo()) {
+            // hasta el final
+        }
+        assertEquals(end, state(board));
+        assertEquals(placed + shots.size(), board.getMoveCount());
+    }
+
+    @Test
+    void newMoveAfterSeekDropsTheRedoTail() {
+        Board board = new Board(SPEC);
+        board.placeShipsRandomly(new SplittableRandom(6));
+        int placed = board.getMoveCount();
+        List<Coordinate> shots = shootEverything(board, new SplittableRandom(7));
+
+        int middle = placed + shots.size() / 2;
+        board.seek(middle);
+        assertTrue(board.getJournal().redoCount() > 0);
+        board.receiveShot(shots.get(shots.size() - 1));
+        assertEquals(0, board.getJournal().redoCount());
+        assertFalse(board.redo());
+        assertEquals(middle + 1, board.getMoveCount());
+    }
+
+    @Test
+    void salvoMatchesShootingOneByOne() {
+        Board salvo = new Board(SPEC);
+        salvo.placeShipsRandomly(new SplittableRandom(12));
+        Board single = replay(salvo, List.of());
+        int placed = salvo.getMoveCount();
+        List<Coordinate> shots = shootEverything(replay(salvo, List.of()), new SplittableRandom(13));
+
+        for (int from = 0; from < shots.size(); from += 7) {
+            List<Coordinate> volley = new ArrayList<>(shots.subList(from, Math.min(from + 7, shots.size())));
+            volley.add(volley.get(0)); // repetido dentro de la andanada
+            SalvoOutcome outcome = salvo.receiveShots(volley);
+            for (int i = 0; i < volley.size(); i++) {
+                assertEquals(single.receiveShot(volley.get(i)).getResult(), outcome.getShots().get(i).getResult());
+            }
+            assertEquals(state(single), state(salvo));
+        }
+        assertTrue(salvo.allShipsSunk());
+        assertEquals(placed + shots.size(), salvo.getMoveCount());
+        salvo.seek(placed + shots.size() / 2);
+        assertEquals(state(replay(salvo, shots.subList(0, shots.size() / 2))), state(salvo));
+    }
+
+    @Test
+    void seekOutsideTheJournalThrows() {
+        Board board = new Board(SPEC);
+        board.placeShipsRandomly(new SplittableRandom(1));
+        int moves = board.getMoveCount();
+        assertThrows(IndexOutOfBoundsException.class, () -> board.seek(moves + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.seek(-1));
+    }
+
+    // Dispara a todas las casillas en orden aleatorio y devuelve los disparos
+    private static List<Coordinate> shootEverything(Board board, SplittableRandom random) {
+        List<Coordinate> shots = new ArrayList<>();
+        while (board.unshotCount() > 0) {
+            int cell = board.randomUnshotCell(random);
+            Coordinate c = Coordinate.of(cell / SPEC.getCols(), cell % SPEC.getCols());
+            board.receiveShot(c);
+            shots.add(c);
+        }
+        return shots;
+    }
+
+    // Tablero nuevo con la misma flota y estos disparos
+    private static Board replay(Board original, List<Coordinate> shots) {
+        Board board = new Board(SPEC);
+        for (Ship ship : original.getFleet()) {
+            List<Coordinate> cells = ship.getPositions();
+            boolean horizontal = cells.size() == 1 || cells.get(0).getRow() == cells.get(1).getRow();
+            assertTrue(board.placeShip(new Ship(ship.getType()), cells.get(0), horizontal));
+        }
+        for (Coordinate c : shots) {
+            board.receiveShot(c);
+        }
+        return board;
+    }
+
+    // Todo lo que se ve desde fuera: disparos, agua, barcos hundidos y el índice de tramos por disparar
+    private static String state(Board board) {
+        StringBuilder text = new StringBuilder();
+        text.append(new TreeSet<>(cellIndexes(board.getShotsFired())));
+        text.append(new TreeSet<>(cellIndexes(board.getMisses())));
+        for (Ship ship : board.getFleet()) {
+            text.append(ship.getHealth()).append(ship.isSunk() ? 'S' : '-');
+        }
+        text.append(board.unshotCount()).append('/').append(board.shipsAfloat());
+        FreeRunIndex targets = board.getTargetIndex();
+        for (int k = 1; k <= targets.getMaxLength(); k++) {
+            text.append(' ').append(targets.count(k));
+        }
+        return text.toString();
+    }
+
+    private static List<Integer> cellIndexes(Set<Coordinate> cells) {
+        List<Integer> indexes = new ArrayList<>();
+        for (Coordinate c : cells) {
+            indexes.add(c.getRow() * SPEC.getCols() + c.getCol());
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,99 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetPlacerTest {
+
+    @Test
+    void layoutsAreLegalOnTheBoard() {
+        for (BoardSpec spec : List.of(BoardSpec.classic(), BoardSpec.classic().withNoTouch(true),
+                BoardSpec.withStandardFleet(30, 30, 2).withNoTouch(true))) {
+            FleetPlacer placer = FleetPlacer.forSpec(spec);
+            SplittableRandom random = new SplittableRandom(17);
+            for (int i = 0; i < 500; i++) {
+                int[] layout = placer.generate(spec.getFleet(), random);
+                placer.release(layout, spec.getFleet());
+                // placeFleet aplica las reglas del tablero (también sin contacto) por su cuenta
+                Board board = new Board(spec);
+                board.placeFleet(layout);
+                assertEquals(spec.getFleet().size(), board.getFleet().size());
+            }
+        }
+    }
+
+    @Test
+    void releaseLeavesThePlacerEmpty() {
+        BoardSpec spec = BoardSpec.classic().withNoTouch(true);
+        FleetPlacer placer = FleetPlacer.forSpec(spec);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 100; i++) {
+            placer.release(placer.generate(spec.getFleet(), random), spec.getFleet());
+        }
+        for (int cell = 0; cell < spec.getCellCount(); cell++) {
+            assertTrue(placer.fits(cell << 1, 1), "cell " + cell + " still taken");
+        }
+    }
+
+    // Junto a un barco ya conocido, la regla sin contacto rechaza colocaciones; las
+    // que quedan deben salir con la misma frecuencia
+    @Test
+    void noTouchPicksUniformlyAmongLegalPlacements() {
+        int rows = 6;
+        int cols = 6;
+        FleetPlacer placer = new FleetPlacer(rows, cols, 4, true);
+        placer.blockShip((2 * cols + 1) << 1, 4); // horizontal en la fila 2, columnas 1-4
+        List<Ship.Type> fleet = List.of(Ship.Type.SUBMARINE);
+
+        int legal = 0;
+        for (int cell = 0; cell < rows * cols; cell++) {
+            for (int vertical = 0; vertical <= 1; vertical++) {
+                if (placer.fits((cell << 1) | vertical, 3)) legal++;
+            }
+        }
+        int draws = 40_000;
+        Map<Integer, Integer> seen = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(23);
+        for (int i = 0; i < draws; i++) {
+            int[] layout = placer.generate(fleet, random);
+            placer.release(layout, fleet);
+            assertTrue(placer.fits(layout[0], 3));
+            seen.merge(layout[0], 1, Integer::sum);
+        }
+        assertEquals(legal, seen.size());
+        double expected = (double) draws / legal;
+        for (int count : seen.values()) {
+            assertTrue(Math.abs(count - expected) < 0.15 * expected, count + " draws, expected about " + expected);
+        }
+    }
+
+    @Test
+    void fleetThatCannotFitThrowsAndLeavesThePlacerUsable() {
+        // Cuatro portaaviones sin contacto no caben en 4x4 (se acaba enumerando sin hallar ninguna)
+        FleetPlacer placer = new FleetPlacer(4, 4, 4, true);
+        List<Ship.Type> crowded = List.of(Ship.Type.AIRCRAFT_CARRIER, Ship.Type.AIRCRAFT_CARRIER,
+                Ship.Type.AIRCRAFT_CARRIER, Ship.Type.AIRCRAFT_CARRIER);
+        SplittableRandom random = new SplittableRandom(1);
+        assertThrows(IllegalStateException.class, () -> placer.generate(crowded, random));
+
+        List<Ship.Type> two = List.of(Ship.Type.AIRCRAFT_CARRIER, Ship.Type.AIRCRAFT_CARRIER);
+        int[] layout = placer.generate(two, random);
+        Board board = new Board(new BoardSpec(4, 4, two, false, true));
+        board.placeFleet(layout);
+    }
+
+    @Test
+    void shipLongerThanThePlacerAllowsIsRejected() {
+        FleetPlacer placer = new FleetPlacer(10, 10, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> placer.generate(List.of(Ship.Type.AIRCRAFT_CARRIER), new SplittableRandom(1)));
+    }
+}
@@ -0,0 +1,137 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El índice de tramos contra un recorrido directo de las celdas libres
+class FreeRunIndexTest {
+
+    private static final int ROWS = 9;
+    private static final int COLS = 12;
+    private static final int MAX_LENGTH = 5;
+
+    @Test
+    void countsAndPlacementsMatchBruteForceWhileBlocking() {
+        FreeRunIndex index = new FreeRunIndex(ROWS, COLS, MAX_LENGTH);
+        boolean[] blocked = new boolean[ROWS * COLS];
+        SplittableRandom random = new SplittableRandom(11);
+        for (int step = 0; step < 600; step++) {
+            int cell = random.nextInt(blocked.length);
+            if (blocked[cell]) {
+                assertTrue(index.unblock(cell));
+            } else {
+                assertTrue(index.block(cell));
+            }
+            blocked[cell] = !blocked[cell];
+            assertEquals(blocked[cell], index.isBlocked(cell));
+            assertMatches(index, blocked);
+        }
+    }
+
+    @Test
+    void blockingTwiceIsANoOp() {
+        FreeRunIndex index = new FreeRunIndex(ROWS, COLS, MAX_LENGTH);
+        assertTrue(index.block(5));
+        assertFalse(index.block(5));
+        assertEquals(1, index.blockedCount());
+        assertTrue(index.unblock(5));
+        assertFalse(index.unblock(5));
+        assertEquals(0, index.blockedCount());
+    }
+
+    @Test
+    void pickReturnsFittingPlacementsOrMinusOne() {
+        FreeRunIndex index = new FreeRunIndex(ROWS, COLS, MAX_LENGTH);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int cell = 0; cell < ROWS * COLS; cell += 2) {
+            index.block(cell);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            int k = 1 + random.nextInt(MAX_LENGTH);
+            int placement = index.pick(k, random);
+            if (index.count(k) == 0) {
+                assertEquals(-1, placement);
+            } else {
+                assertTrue(index.fits(placement, k), "picked a placement that does not fit");
+            }
+        }
+    }
+
+    @Test
+    void overlappingHalosAreReleasedIndependently() {
+        FreeRunIndex index = new FreeRunIndex(ROWS, COLS, MAX_LENGTH);
+        long[] empty = counts(index);
+        // Dos barcos horizontales con un hueco de una fila: sus halos comparten la fila 3
+        index.claimHalo(2 * COLS + 2, true, 4);
+        index.claimHalo(4 * COLS + 3, true, 3);
+        int shared = 3 * COLS + 4;
+        assertTrue(index.isBlocked(shared));
+
+        index.releaseHalo(2 * COLS + 2, true, 4);
+        assertTrue(index.isBlocked(shared), "the second halo still covers the shared row");
+        assertFalse(index.isBlocked(2 * COLS + 2));
+
+        index.releaseHalo(4 * COLS + 3, true, 3);
+        assertEquals(0, index.blockedCount());
+        for (int k = 1; k <= MAX_LENGTH; k++) {
+            assertEquals(empty[k], index.count(k));
+        }
+    }
+
+    @Test
+    void copyDoesNotShareState() {
+        FreeRunIndex source = new FreeRunIndex(ROWS, COLS, MAX_LENGTH);
+        source.block(7);
+        FreeRunIndex copy = new FreeRunIndex(source);
+        copy.block(20);
+        copy.unblock(7);
+        assertTrue(source.isBlocked(7));
+        assertFalse(source.isBlocked(20));
+        assertEquals(1, source.blockedCount());
+    }
+
+    private static void assertMatches(FreeRunIndex index, boolean[] blocked) {
+        for (int k = 1; k <= MAX_LENGTH; k++) {
+            Set<Integer> expected = new HashSet<>();
+            for (int cell = 0; cell < blocked.length; cell++) {
+                // Un barco de una casilla solo se lista en horizontal
+                for (int vertical = 0; vertical <= (k == 1 ? 0 : 1); vertical++) {
+                    if (fits(blocked, cell, vertical == 0, k)) expected.add((cell << 1) | vertical);
+                }
+                assertEquals(fits(blocked, cell, false, k), index.fits((cell << 1) | 1, k));
+                assertEquals(fits(blocked, cell, true, k), index.fits(cell << 1, k));
+            }
+            Set<Integer> listed = new HashSet<>();
+            index.forEach(k, placement -> assertTrue(listed.add(placement), "placement listed twice"));
+            assertEquals(expected, listed);
+            assertEquals(expected.size(), index.count(k));
+        }
+    }
+
+    private static boolean fits(boolean[] blocked, int cell, boolean horizontal, int k) {
+        int row = cell / COLS;
+        int col = cell % COLS;
+        if ((horizontal ? col : row) + k > (horizontal ? COLS : ROWS)) {
+            return false;
+        }
+        for (int i = 0; i < k; i++) {
+            if (blocked[horizontal ? cell + i : cell + i * COLS]) return false;
+        }
+        return true;
+    }
+
+    private static long[] counts(FreeRunIndex index) {
+        long[] counts = new long[MAX_LENGTH + 1];
+        for (int k = 1; k <= MAX_LENGTH; k++) {
+            counts[k] = index.count(k);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,244 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Partidas completas sin interfaz: el jugador es otro bot que juega con
+// playerShot()/playerSalvo() sobre el tablero enemigo.
+class GameEngineTest {
+
+    // Más que suficiente para cualquier partida de 10x10 (cada jugada dispara al menos una vez)
+    private static final int MAX_MOVES = 1_000;
+
+    @Test
+    void classicGameEndsWithAWinner() {
+        for (long seed = 1; seed <= 5; seed++) {
+            playToTheEnd(BoardSpec.classic(), new GameSeed(seed));
+        }
+    }
+
+    @Test
+    void salvoGameEndsWithAWinner() {
+        for (long seed = 1; seed <= 5; seed++) {
+            playToTheEnd(BoardSpec.classic().withSalvo(true), new GameSeed(seed));
+        }
+    }
+
+    @Test
+    void noTouchGameEndsWithAWinner() {
+        for (long seed = 1; seed <= 5; seed++) {
+            GameEngine engine = playToTheEnd(BoardSpec.classic().withNoTouch(true), new GameSeed(seed));
+            assertNoShipsTouch(engine.getPlayerBoard());
+            assertNoShipsTouch(engine.getEnemyBoard());
+        }
+    }
+
+    @Test
+    void sameSeedReplaysTheSameGame() {
+        GameEngine first = playToTheEnd(BoardSpec.classic(), new GameSeed(42));
+        GameEngine second = playToTheEnd(BoardSpec.classic(), new GameSeed(42));
+        assertEquals(first.getPhase(), second.getPhase());
+        assertEquals(first.getPlayerBoard().getShotsFired(), second.getPlayerBoard().getShotsFired());
+        assertEquals(first.getEnemyBoard().getShotsFired(), second.getEnemyBoard().getShotsFired());
+    }
+
+    @Test
+    void hitLetsThePlayerShootAgain() {
+        GameEngine engine = GameEngine.headless(BoardSpec.classic(), new DensityStrategy(), new GameSeed(7));
+        engine.start();
+        Ship target = longestShip(engine.getEnemyBoard());
+
+        ShotOutcome outcome = engine.playerShot(target.getPositions().get(0));
+
+        assertEquals(ShotOutcome.Result.HIT, outcome.getResult());
+        assertTrue(engine.isPlayerTurn());
+        assertEquals(0, engine.getPlayerBoard().getShotsFired().size(), "the machine must not have fired");
+    }
+
+    @Test
+    void missPassesTheTurnToTheMachine() {
+        GameEngine engine = GameEngine.headless(BoardSpec.classic(), new DensityStrategy(), new GameSeed(7));
+        engine.start();
+
+        ShotOutcome outcome = engine.playerShot(waterCell(engine.getEnemyBoard()));
+
+        assertEquals(ShotOutcome.Result.MISS, outcome.getResult());
+        // Síncrono: la máquina ya jugó todo su turno dentro de playerShot()
+        assertFalse(engine.getPlayerBoard().getShotsFired().isEmpty());
+        assertTrue(engine.isPlayerTurn() || engine.getPhase() == GameEngine.Phase.ENEMY_WON);
+    }
+
+    @Test
+    void moveBeforeStartThrows() {
+        GameEngine engine = GameEngine.headless(BoardSpec.classic(), new DensityStrategy(), new GameSeed(1));
+        assertThrows(IllegalStateException.class, () -> engine.playerShot(Coordinate.of(0, 0)));
+    }
+
+    @Test
+    void moveDuringTheMachineTurnThrows() {
+        BoardSpec spec = BoardSpec.classic();
+        // Asíncrono, con un plazo largo y una estrategia que lo agota: la máquina
+        // sigue pensando mientras el jugador intenta mover
+        GameEngine engine = new GameEngine(new Board(spec), new Board(spec), new ThinkingStrategy(), null,
+                60_000, true, new GameSeed(3));
+        try {
+            engine.start();
+            engine.playerShot(waterCell(engine.getEnemyBoard()));
+            assertEquals(GameEngine.Phase.ENEMY_TURN, engine.getPhase());
+            assertThrows(IllegalStateException.class, () -> engine.playerShot(waterCell(engine.getEnemyBoard())));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void moveAfterTheGameEndsThrows() {
+        GameEngine engine = playToTheEnd(BoardSpec.classic(), new GameSeed(5));
+        assertThrows(IllegalStateException.class, () -> engine.playerShot(Coordinate.of(0, 0)));
+    }
+
+    @Test
+    void wrongFiringModeThrows() {
+        GameEngine salvo = GameEngine.headless(BoardSpec.classic().withSalvo(true), new DensityStrategy(), new GameSeed(1));
+        salvo.start();
+        assertThrows(IllegalStateException.class, () -> salvo.playerShot(Coordinate.of(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> salvo.playerSalvo(List.of(Coordinate.of(0, 0))));
+
+        GameEngine classic = GameEngine.headless(BoardSpec.classic(), new DensityStrategy(), new GameSeed(1));
+        classic.start();
+        assertThrows(IllegalStateException.class, () -> classic.playerSalvo(List.of(Coordinate.of(0, 0))));
+    }
+
+    @Test
+    void playerCanAnswerBeforeTheMachineTurnReturns() throws InterruptedException {
+        // El listener tarda en cada aviso: la fase ya es del jugador pero el turno
+        // de la máquina aún no ha vuelto cuando el jugador contesta
+        GameEventListener slow = new GameEventListener() {
+            @Override
+            public void onEnemyShotFired(ShotOutcome outcome, BoardSnapshot board) {
+                pause();
+            }
+
+            @Override
+            public void onEnemySalvoFired(SalvoOutcome salvo, BoardSnapshot board) {
+                pause();
+            }
+        };
+        BoardSpec spec = BoardSpec.classic();
+        for (long seed = 1; seed <= 10; seed++) {
+            GameEngine engine = new GameEngine(new Board(spec), new Board(spec), new DensityStrategy(), slow,
+                    0, true, new GameSeed(seed));
+            ShotStrategy player = new HuntTargetStrategy(new GameSeed(seed).split());
+            try {
+                engine.start();
+                long deadline = System.nanoTime() + 30_000_000_000L;
+                while (!engine.isOver()) {
+                    assertTrue(System.nanoTime() < deadline, "game did not finish");
+                    if (engine.isPlayerTurn()) {
+                        engine.playerShot(player.chooseTarget(engine.getEnemyBoard()));
+                    } else {
+                        Thread.sleep(0, 100_000);
+                    }
+                }
+            } finally {
+                engine.stop();
+            }
+        }
+    }
+
+    // Juega hasta el final con un bot de caza como jugador y comprueba el ganador
+    private static GameEngine playToTheEnd(BoardSpec spec, GameSeed seed) {
+        GameEngine engine = GameEngine.headless(spec, new DensityStrategy(), seed);
+        ShotStrategy player = new HuntTargetStrategy(seed.split());
+        engine.start();
+        for (int moves = 0; !engine.isOver(); moves++) {
+            assertTrue(moves < MAX_MOVES, "game did not finish");
+            if (spec.isSalvo()) {
+                engine.playerSalvo(player.chooseTargets(engine.getEnemyBoard(), engine.playerSalvoSize()));
+            } else {
+                engine.playerShot(player.chooseTarget(engine.getEnemyBoard()));
+            }
+        }
+        GameEngine.Phase phase = engine.getPhase();
+        assertTrue(phase == GameEngine.Phase.PLAYER_WON || phase == GameEngine.Phase.ENEMY_WON);
+        assertEquals(phase == GameEngine.Phase.PLAYER_WON, engine.getEnemyBoard().allShipsSunk());
+        assertEquals(phase == GameEngine.Phase.ENEMY_WON, engine.getPlayerBoard().allShipsSunk());
+        return engine;
+    }
+
+    private static Ship longestShip(Board board) {
+        Ship longest = board.getFleet().get(0);
+        for (Ship ship : board.getFleet()) {
+            if (ship.getType().getSize() > longest.getType().getSize()) longest = ship;
+        }
+        return longest;
+    }
+
+    private static Coordinate waterCell(Board board) {
+        BoardSpec spec = board.getSpec();
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getCols(); col++) {
+                Coordinate c = Coordinate.of(row, col);
+                if (!board.getGrid().containsKey(c) && !board.wasShotAt(c)) return c;
+            }
+        }
+        throw new AssertionError("No water left");
+    }
+
+    // Ninguna celda de un barco es vecina (también en diagonal) de otro barco
+    private static void assertNoShipsTouch(Board board) {
+        for (Ship ship : board.getFleet()) {
+            for (Coordinate c : ship.getPositions()) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        Ship other = board.getGrid().get(Coordinate.of(c.getRow() + dr, c.getCol() + dc));
+                        assertTrue(other == null || other == ship, "ships touch at " + c);
+                    }
+                }
+            }
+        }
+    }
+
+    // Busca hasta el plazo (o hasta que stop() la interrumpa) y luego dispara como DensityStrategy
+    private static class ThinkingStrategy implements ShotStrategy {
+        private final ShotStrategy delegate = new DensityStrategy();
+
+        @Override
+        public Coordinate chooseTarget(Board target) {
+            return delegate.chooseTarget(target);
+        }
+
+        @Override
+        public Coordinate chooseTarget(Board target, long deadline) {
+            long left = deadline - System.nanoTime();
+            if (left > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return delegate.chooseTarget(target);
+        }
+
+        @Override
+        public void reset() {
+            delegate.reset();
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
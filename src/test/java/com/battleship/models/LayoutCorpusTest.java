@@ -0,0 +1,80 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LayoutCorpusTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenLayoutsReadBackAndFitTheirBoard() throws IOException {
+        BoardSpec spec = BoardSpec.classic().withNoTouch(true);
+        Path file = dir.resolve("corpus.bin");
+        LayoutCorpus.write(file, spec, 300, new GameSeed(9).split());
+
+        LayoutCorpus corpus = LayoutCorpus.open(file);
+        assertEquals(spec, corpus.getSpec());
+        assertEquals(300, corpus.size());
+        int[] out = new int[spec.getFleet().size()];
+        for (long i = 0; i < corpus.size(); i++) {
+            corpus.layout(i, out);
+            assertEquals(Arrays.toString(out), Arrays.toString(corpus.layout(i)));
+            corpus.placeOn(new Board(spec), i); // lanza si la flota no es legal
+        }
+    }
+
+    @Test
+    void sameSeedWritesTheSameFile() throws IOException {
+        BoardSpec spec = BoardSpec.withStandardFleet(100, 100, 10);
+        Path first = dir.resolve("first.bin");
+        Path second = dir.resolve("second.bin");
+        LayoutCorpus.write(first, spec, 50, new GameSeed(4).split());
+        LayoutCorpus.write(second, spec, 50, new GameSeed(4).split());
+        assertEquals(-1, Files.mismatch(first, second));
+        // 100x100: 20000 colocaciones, dos bytes por barco
+        assertEquals(2 * spec.getFleet().size(), LayoutCorpus.open(first).getLayoutBytes());
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        Path file = dir.resolve("corpus.bin");
+        LayoutCorpus.write(file, BoardSpec.classic(), 20, new GameSeed(1).split());
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> LayoutCorpus.open(truncated));
+
+        Path foreign = dir.resolve("foreign.bin");
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        Files.write(foreign, wrongMagic);
+        assertThrows(IOException.class, () -> LayoutCorpus.open(foreign));
+
+        Path empty = dir.resolve("empty.bin");
+        Files.write(empty, new byte[0]);
+        assertThrows(IOException.class, () -> LayoutCorpus.open(empty));
+    }
+
+    @Test
+    void readsOutsideTheCorpusAreRejected() throws IOException {
+        Path file = dir.resolve("corpus.bin");
+        LayoutCorpus.write(file, BoardSpec.classic(), 5, new GameSeed(2).split());
+        LayoutCorpus corpus = LayoutCorpus.open(file);
+        assertThrows(IndexOutOfBoundsException.class, () -> corpus.layout(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> corpus.layout(-1));
+        assertThrows(IllegalArgumentException.class, () -> corpus.layout(0, new int[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> corpus.placeOn(new Board(BoardSpec.classic().withNoTouch(true)), 0));
+    }
+}
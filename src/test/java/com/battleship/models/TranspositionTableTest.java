@@ -0,0 +1,68 @@
+package com.battleship.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranspositionTableTest {
+
+    private static final int ENTRIES = 64;
+    private static final int BUCKETS = ENTRIES / 2;
+
+    @Test
+    void storedValuesAreFound() {
+        TranspositionTable table = new TranspositionTable(ENTRIES);
+        table.store(12345L, 3.5, 10);
+        assertEquals(3.5, table.probe(12345L));
+        assertTrue(Double.isNaN(table.probe(54321L)));
+        table.store(12345L, 4.25, 1);
+        assertEquals(4.25, table.probe(12345L), "same key overwrites in place");
+    }
+
+    @Test
+    void capacityIsRoundedDownToAPowerOfTwo() {
+        assertEquals(64, new TranspositionTable(100).capacity());
+        assertEquals(2, new TranspositionTable(1).capacity());
+    }
+
+    @Test
+    void expensiveEntrySurvivesCheaperCollisions() {
+        TranspositionTable table = new TranspositionTable(ENTRIES);
+        // Claves de la misma cubeta
+        long expensive = 1;
+        table.store(expensive, 1.0, 1_000);
+        for (int i = 1; i <= 10; i++) {
+            table.store(1 + (long) i * BUCKETS, i, 1);
+        }
+        assertEquals(1.0, table.probe(expensive));
+        assertEquals(10.0, table.probe(1 + 10L * BUCKETS), "the always-replace slot keeps the latest");
+        assertTrue(Double.isNaN(table.probe(1 + 9L * BUCKETS)));
+    }
+
+    @Test
+    void entriesFromAnOlderSearchGiveWay() {
+        TranspositionTable table = new TranspositionTable(ENTRIES);
+        long old = 2;
+        table.store(old, 1.0, 1_000);
+        table.newSearch();
+        table.store(2 + BUCKETS, 2.0, 1);
+        table.store(2 + 2L * BUCKETS, 3.0, 1);
+        // La cara de antes bajó al hueco de siempre-sustituir y de ahí salió
+        assertTrue(Double.isNaN(table.probe(old)));
+        assertEquals(3.0, table.probe(2 + 2L * BUCKETS));
+        assertTrue(table.getEvictions() > 0);
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        TranspositionTable table = new TranspositionTable(ENTRIES);
+        for (long key = 0; key < ENTRIES; key++) {
+            table.store(key, key, 1);
+        }
+        table.clear();
+        for (long key = 0; key < ENTRIES; key++) {
+            assertTrue(Double.isNaN(table.probe(key)));
+        }
+    }
+}